@@ -0,0 +1,5 @@
+#!/bin/bash
+# Libera conexões de replicação para a réplica de leitura (products-db-replica).
+# Executado apenas na criação do volume do primário.
+set -e
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
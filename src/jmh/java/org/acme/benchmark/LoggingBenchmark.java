@@ -0,0 +1,122 @@
+package org.acme.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.acme.logging.SamplingLogFilter;
+import org.jboss.logging.Logger;
+import org.jboss.logmanager.handlers.AsyncHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de uma linha de log por requisição com o nível desabilitado: montagem antecipada
+ * com {@code String.format} contra mensagem parametrizada. Também mede, na thread que faz o log,
+ * uma linha de INFO amostrada a 10% e escrita por um {@code AsyncHandler}, com o filtro de
+ * amostragem no handler interno (o registro é copiado antes do filtro) e no logger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    /** Mantém a referência para que o nível configurado não se perca com o logger coletado. */
+    private final java.util.logging.Logger julLogger = java.util.logging.Logger.getLogger(LoggingBenchmark.class.getName());
+    private final Logger log = Logger.getLogger(LoggingBenchmark.class);
+    private final String sku = "SKU-1234567";
+    private final String name = "Produto de Teste";
+    private final java.util.logging.Logger handlerSampled = java.util.logging.Logger.getLogger("benchmark.handler-sampled");
+    private final java.util.logging.Logger loggerSampled = java.util.logging.Logger.getLogger("benchmark.logger-sampled");
+    private final Object[] parameters = { sku, name };
+    private AsyncHandler handlerSampledAsync;
+    private AsyncHandler loggerSampledAsync;
+
+    @Setup
+    public void setup() {
+        julLogger.setLevel(Level.WARNING);
+        SamplingLogFilter filter = new SamplingLogFilter(Map.of(handlerSampled.getName(), 0.1,
+                loggerSampled.getName(), 0.1));
+
+        Handler handlerFiltered = new DiscardingHandler();
+        handlerFiltered.setFilter(filter);
+        handlerSampledAsync = async(handlerFiltered);
+        handlerSampled.addHandler(handlerSampledAsync);
+
+        loggerSampledAsync = async(new DiscardingHandler());
+        loggerSampled.addHandler(loggerSampledAsync);
+        loggerSampled.setFilter(filter);
+
+        for (java.util.logging.Logger logger : List.of(handlerSampled, loggerSampled)) {
+            logger.setUseParentHandlers(false);
+            logger.setLevel(Level.INFO);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        handlerSampledAsync.close();
+        loggerSampledAsync.close();
+    }
+
+    private static AsyncHandler async(Handler handler) {
+        // mesma configuração de quarkus.log.*.async em application.properties
+        AsyncHandler async = new AsyncHandler(16384);
+        async.setOverflowAction(AsyncHandler.OverflowAction.DISCARD);
+        async.addHandler(handler);
+        return async;
+    }
+
+    @Benchmark
+    public void eagerFormat() {
+        log.info(String.format("Produto encontrado: sku=%s, nome=%s", sku, name));
+    }
+
+    @Benchmark
+    public void parameterized() {
+        log.infof("Produto encontrado: sku=%s, nome=%s", sku, name);
+    }
+
+    @Benchmark
+    public void sampledInAsyncHandler() {
+        handlerSampled.log(Level.INFO, "Produto encontrado: sku={0}, nome={1}", parameters);
+    }
+
+    @Benchmark
+    public void sampledInLogger() {
+        loggerSampled.log(Level.INFO, "Produto encontrado: sku={0}, nome={1}", parameters);
+    }
+
+    /** Handler final sem escrita, para que a medida seja o caminho até a fila. */
+    private static final class DiscardingHandler extends Handler {
+        @Override
+        public void publish(LogRecord record) {
+            if (isLoggable(record)) {
+                record.getMessage();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.acme.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.acme.dto.ProductErrorDTO;
+import org.acme.exception.ProductAlreadyExistException;
+import org.acme.exception.ProductExceptionMapper;
+import org.acme.exception.ProductNotFoundException;
+import org.acme.exception.ProductValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo do caminho de erro: construção da exceção de domínio e do {@link ProductErrorDTO}.
+ * {@code legacyNotFound} reproduz a exceção anterior (com pilha e {@code String.format})
+ * como referência; compare com {@code -prof gc} para ver também a alocação por erro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductErrorBenchmark {
+
+    private final List<String> errors = List.of("SKU deve ter entre 5 e 12 caracteres");
+
+    private final ProductExceptionMapper.ProductNotFoundExceptionMapper notFoundMapper =
+            new ProductExceptionMapper.ProductNotFoundExceptionMapper();
+
+    @Benchmark
+    public ProductErrorDTO notFound() {
+        return ProductErrorDTO.fromException(new ProductNotFoundException("SKU-1234567"));
+    }
+
+    @Benchmark
+    public ProductErrorDTO alreadyExists() {
+        return ProductErrorDTO.fromException(new ProductAlreadyExistException("SKU-1234567", "Produto"));
+    }
+
+    @Benchmark
+    public ProductErrorDTO validation() {
+        return ProductErrorDTO.fromException(new ProductValidationException(errors));
+    }
+
+    @Benchmark
+    public Response notFoundResponse() {
+        return notFoundMapper.toResponse(new ProductNotFoundException("SKU-1234567"));
+    }
+
+    @Benchmark
+    public ProductErrorDTO legacyNotFound() {
+        LegacyNotFoundException exception = new LegacyNotFoundException("SKU-1234567");
+        return new ProductErrorDTO(exception.getMessage(), "PRODUCT_NOT_FOUND", exception.details);
+    }
+
+    /** Forma anterior das exceções de domínio: pilha capturada e detalhes formatados no construtor. */
+    static class LegacyNotFoundException extends WebApplicationException {
+        final List<String> details;
+
+        LegacyNotFoundException(String sku) {
+            super("Produto não encontrado", Response.Status.NOT_FOUND);
+            details = List.of(String.format("Não foi possível encontrar um produto com o SKU %s", sku));
+        }
+    }
+}
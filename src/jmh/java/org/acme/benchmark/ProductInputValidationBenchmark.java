@@ -0,0 +1,80 @@
+package org.acme.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.acme.dto.ProductInputDTO;
+import org.acme.validation.ProductInputValidator;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo da validação do {@link ProductInputDTO} pelo Bean Validation e pelo {@link ProductInputValidator},
+ * em entradas válidas e inválidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductInputValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private ProductInputValidator inputValidator;
+    private ProductInputDTO valid;
+    private ProductInputDTO invalid;
+
+    @Setup
+    public void setup() {
+        factory = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory();
+        validator = factory.getValidator();
+        inputValidator = new ProductInputValidator();
+        valid = new ProductInputDTO("SKU-12345", "Produto de Teste");
+        invalid = new ProductInputDTO("sku 1", "Produto %");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductInputDTO>> validInput() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductInputDTO>> invalidInput() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public List<String> validInputPrecompiled() {
+        return inputValidator.validate(valid);
+    }
+
+    @Benchmark
+    public List<String> invalidInputPrecompiled() {
+        return inputValidator.validate(invalid);
+    }
+}
@@ -0,0 +1,65 @@
+package org.acme.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo da conversão de {@link Product} para {@link ProductOutputDTO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({ "10", "1000" })
+    int size;
+
+    private Product product;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        product = product(1);
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(product(i));
+        }
+    }
+
+    @Benchmark
+    public ProductOutputDTO fromEntity() {
+        return ProductOutputDTO.fromEntity(product);
+    }
+
+    @Benchmark
+    public List<ProductOutputDTO> fromEntities() {
+        return ProductOutputDTO.fromEntities(products);
+    }
+
+    static Product product(long id) {
+        Product product = new Product(String.format("SKU-%07d", id), "Produto " + id);
+        product.id = id;
+        product.createdAt = LocalDateTime.now();
+        product.version = 0L;
+        return product;
+    }
+}
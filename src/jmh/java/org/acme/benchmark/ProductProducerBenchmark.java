@@ -0,0 +1,137 @@
+package org.acme.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.serialization.ProductBinarySerializer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.quarkus.kafka.client.serialization.ObjectMapperSerializer;
+
+/**
+ * Vazão de eventos de produto confirmados pelo broker, com a mesma configuração do produtor
+ * da aplicação (lida de {@code products.kafka.*} e do canal {@code products-out}), comparando o
+ * valor JSON com o binário e os algoritmos de compressão.
+ * Precisa de um broker Kafka acessível em {@code BENCHMARK_KAFKA_BOOTSTRAP_SERVERS}
+ * (padrão {@code localhost:9092}); sem ele, a preparação falha e só este benchmark é descartado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductProducerBenchmark {
+
+    static final int EVENTS_PER_INVOCATION = 1000;
+
+    private static final String CHANNEL = "mp.messaging.outgoing.products-out.";
+
+    @Param({ "json", "binary" })
+    String format;
+
+    @Param({ "none", "lz4", "zstd" })
+    String compression;
+
+    private KafkaProducer<String, ProductOutputDTO> producer;
+    private List<ProductOutputDTO> products;
+    private String topic;
+
+    @Setup
+    public void setup() throws ExecutionException, InterruptedException, IOException {
+        String bootstrapServers = System.getenv().getOrDefault("BENCHMARK_KAFKA_BOOTSTRAP_SERVERS", "localhost:9092");
+        Serializer<ProductOutputDTO> valueSerializer = "binary".equals(format)
+                ? new ProductBinarySerializer()
+                : new ObjectMapperSerializer<>(new ObjectMapper().findAndRegisterModules()
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        Properties application = load("/application.properties");
+        Properties channel = load("/application-dev.properties");
+        producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ACKS_CONFIG, channel.getProperty(CHANNEL + "acks"),
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, channel.getProperty(CHANNEL + "enable.idempotence"),
+                ProducerConfig.LINGER_MS_CONFIG, application.getProperty("products.kafka.linger-ms"),
+                ProducerConfig.BATCH_SIZE_CONFIG, application.getProperty("products.kafka.batch-size"),
+                ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, application.getProperty("products.kafka.delivery-timeout-ms"),
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compression,
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 10000),
+                new StringSerializer(), valueSerializer);
+        topic = "products-benchmark-" + format + "-" + compression;
+
+        products = new ArrayList<>(EVENTS_PER_INVOCATION);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS_PER_INVOCATION; i++) {
+            products.add(new ProductOutputDTO((long) i, String.format("SKU-%07d", i), "Produto de Teste " + i,
+                    now, null, 0L));
+        }
+        // cria o tópico e carrega os metadados antes da medição
+        producer.send(new ProducerRecord<>(topic, "warmup", products.get(0))).get();
+    }
+
+    /** Lê a configuração da aplicação, para que o benchmark acompanhe as mudanças de tuning. */
+    private static Properties load(String resource) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = ProductProducerBenchmark.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Recurso não encontrado no classpath: " + resource);
+            }
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (producer != null) {
+            producer.close();
+        }
+    }
+
+    /**
+     * Envia um bloco de eventos chaveados por SKU e aguarda todas as confirmações;
+     * o resultado é expresso em eventos confirmados por segundo.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_INVOCATION)
+    public RecordMetadata sendAndAwaitAcks() throws ExecutionException, InterruptedException {
+        List<Future<RecordMetadata>> acks = new ArrayList<>(EVENTS_PER_INVOCATION);
+        for (ProductOutputDTO product : products) {
+            acks.add(producer.send(new ProducerRecord<>(topic, product.getSku(), product)));
+        }
+        RecordMetadata last = null;
+        for (Future<RecordMetadata> ack : acks) {
+            last = ack.get();
+        }
+        return last;
+    }
+}
@@ -0,0 +1,75 @@
+package org.acme.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.dto.ProductErrorDTO;
+import org.acme.dto.ProductOutputDTO;
+import org.acme.exception.ProductNotFoundException;
+import org.acme.serialization.ProductBinarySerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.quarkus.kafka.client.serialization.ObjectMapperSerializer;
+
+/**
+ * Custo da serialização das respostas HTTP e dos eventos Kafka, comparando o valor
+ * JSON com o formato binário do produtor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectMapperSerializer<ProductOutputDTO> jsonSerializer;
+    private ProductBinarySerializer binarySerializer;
+    private ProductOutputDTO product;
+    private ProductErrorDTO error;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        jsonSerializer = new ObjectMapperSerializer<>(objectMapper);
+        binarySerializer = new ProductBinarySerializer();
+        product = new ProductOutputDTO(123456L, "SKU-1234567", "Produto de Teste", LocalDateTime.now(), null, 0L);
+        error = ProductErrorDTO.fromException(new ProductNotFoundException("SKU-1234567"));
+    }
+
+    @Benchmark
+    public byte[] productJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] errorJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] kafkaJsonValue() {
+        return jsonSerializer.serialize("products", new RecordHeaders(), product);
+    }
+
+    @Benchmark
+    public byte[] kafkaBinaryValue() {
+        return binarySerializer.serialize("products", new RecordHeaders(), product);
+    }
+}
@@ -0,0 +1,345 @@
+package org.acme.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+import org.acme.interceptor.TraceIdInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo do {@link TraceIdInterceptor} por requisição, com e sem o cabeçalho {@code X-Trace-Id} enviado pelo cliente.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceIdInterceptorBenchmark {
+
+    private TraceIdInterceptor interceptor;
+
+    @Setup
+    public void setup() {
+        interceptor = new TraceIdInterceptor();
+    }
+
+    @Benchmark
+    public ResponseContext withClientTraceId() throws IOException {
+        RequestContext request = new RequestContext();
+        request.getHeaders().putSingle("X-Trace-Id", "4bf92f3577b34da6a3ce929d0e0e4736");
+        ResponseContext response = new ResponseContext();
+        interceptor.filter(request);
+        interceptor.filter(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public ResponseContext withoutClientTraceId() throws IOException {
+        RequestContext request = new RequestContext();
+        ResponseContext response = new ResponseContext();
+        interceptor.filter(request);
+        interceptor.filter(request, response);
+        return response;
+    }
+
+    static class RequestContext implements ContainerRequestContext {
+        private final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+
+        @Override
+        public MultivaluedMap<String, String> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String getHeaderString(String name) {
+            return headers.getFirst(name);
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            return null;
+        }
+
+        @Override
+        public Collection<String> getPropertyNames() {
+            return List.of();
+        }
+
+        @Override
+        public void setProperty(String name, Object object) {
+        }
+
+        @Override
+        public void removeProperty(String name) {
+        }
+
+        @Override
+        public UriInfo getUriInfo() {
+            return null;
+        }
+
+        @Override
+        public void setRequestUri(URI requestUri) {
+        }
+
+        @Override
+        public void setRequestUri(URI baseUri, URI requestUri) {
+        }
+
+        @Override
+        public Request getRequest() {
+            return null;
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public void setMethod(String method) {
+        }
+
+        @Override
+        public Date getDate() {
+            return null;
+        }
+
+        @Override
+        public Locale getLanguage() {
+            return null;
+        }
+
+        @Override
+        public int getLength() {
+            return -1;
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return null;
+        }
+
+        @Override
+        public List<MediaType> getAcceptableMediaTypes() {
+            return List.of();
+        }
+
+        @Override
+        public List<Locale> getAcceptableLanguages() {
+            return List.of();
+        }
+
+        @Override
+        public Map<String, Cookie> getCookies() {
+            return Map.of();
+        }
+
+        @Override
+        public boolean hasEntity() {
+            return false;
+        }
+
+        @Override
+        public InputStream getEntityStream() {
+            return null;
+        }
+
+        @Override
+        public void setEntityStream(InputStream input) {
+        }
+
+        @Override
+        public SecurityContext getSecurityContext() {
+            return null;
+        }
+
+        @Override
+        public void setSecurityContext(SecurityContext context) {
+        }
+
+        @Override
+        public void abortWith(Response response) {
+        }
+    }
+
+    static class ResponseContext implements ContainerResponseContext {
+        private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+        @Override
+        public MultivaluedMap<String, Object> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public int getStatus() {
+            return 200;
+        }
+
+        @Override
+        public void setStatus(int code) {
+        }
+
+        @Override
+        public Response.StatusType getStatusInfo() {
+            return Response.Status.OK;
+        }
+
+        @Override
+        public void setStatusInfo(Response.StatusType statusInfo) {
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getStringHeaders() {
+            return new MultivaluedHashMap<>();
+        }
+
+        @Override
+        public String getHeaderString(String name) {
+            Object value = headers.getFirst(name);
+            return value == null ? null : value.toString();
+        }
+
+        @Override
+        public Set<String> getAllowedMethods() {
+            return Set.of();
+        }
+
+        @Override
+        public Date getDate() {
+            return null;
+        }
+
+        @Override
+        public Locale getLanguage() {
+            return null;
+        }
+
+        @Override
+        public int getLength() {
+            return -1;
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return null;
+        }
+
+        @Override
+        public Map<String, NewCookie> getCookies() {
+            return Map.of();
+        }
+
+        @Override
+        public EntityTag getEntityTag() {
+            return null;
+        }
+
+        @Override
+        public Date getLastModified() {
+            return null;
+        }
+
+        @Override
+        public URI getLocation() {
+            return null;
+        }
+
+        @Override
+        public Set<Link> getLinks() {
+            return Set.of();
+        }
+
+        @Override
+        public boolean hasLink(String relation) {
+            return false;
+        }
+
+        @Override
+        public Link getLink(String relation) {
+            return null;
+        }
+
+        @Override
+        public Link.Builder getLinkBuilder(String relation) {
+            return null;
+        }
+
+        @Override
+        public boolean hasEntity() {
+            return false;
+        }
+
+        @Override
+        public Object getEntity() {
+            return null;
+        }
+
+        @Override
+        public Class<?> getEntityClass() {
+            return null;
+        }
+
+        @Override
+        public Type getEntityType() {
+            return null;
+        }
+
+        @Override
+        public void setEntity(Object entity) {
+        }
+
+        @Override
+        public void setEntity(Object entity, Annotation[] annotations, MediaType mediaType) {
+        }
+
+        @Override
+        public Annotation[] getEntityAnnotations() {
+            return new Annotation[0];
+        }
+
+        @Override
+        public OutputStream getEntityStream() {
+            return null;
+        }
+
+        @Override
+        public void setEntityStream(OutputStream outputStream) {
+        }
+    }
+}
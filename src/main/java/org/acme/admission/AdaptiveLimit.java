@@ -0,0 +1,84 @@
+package org.acme.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência ajustado pela latência observada (AIMD): cada requisição concluída
+ * dentro da latência alvo aumenta o limite em {@code 1/limite}, cerca de uma unidade a cada
+ * "janela" de requisições, e uma requisição mais lenta que o alvo o reduz pelo fator de recuo.
+ * A redução acontece no máximo uma vez por intervalo de latência alvo, para que uma rajada de
+ * respostas lentas à mesma sobrecarga não derrube o limite até o mínimo de uma vez.
+ */
+final class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Admite a requisição se houver vaga no limite atual. Cada admissão deve ser seguida de
+     * exatamente um {@link #release(long, long)}.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga de uma requisição admitida e ajusta o limite pela sua latência.
+     *
+     * @param latencyNanos duração da requisição
+     * @param nowNanos     instante atual, em {@link System#nanoTime()}
+     */
+    synchronized void release(long latencyNanos, long nowNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos > latencyTargetNanos) {
+            if (!decreased || nowNanos - lastDecreaseNanos >= latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = nowNanos;
+                decreased = true;
+            }
+        } else if (inFlightBefore * 2 >= limit) {
+            // só cresce quando o limite está sendo usado; ocioso, não há evidência de folga
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    /** Se o limite já foi reduzido até o mínimo. */
+    boolean atMinimum() {
+        return limit <= minLimit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Fração do limite em uso. */
+    double utilization() {
+        return inFlight.get() / limit;
+    }
+}
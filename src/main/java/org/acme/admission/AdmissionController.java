@@ -0,0 +1,219 @@
+package org.acme.admission;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductErrorDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.mutiny.ext.web.Router;
+import io.vertx.mutiny.ext.web.RoutingContext;
+
+/**
+ * Controle de admissão da API de produtos. Leituras (GET, HEAD, OPTIONS) e escritas têm limites
+ * de concorrência separados, ajustados pela latência observada ({@link AdaptiveLimit}); acima do
+ * limite a requisição é recusada na hora com 503 e {@code Retry-After}, em vez de esperar na fila
+ * do pool de conexões. Escritas são descartadas primeiro: além do próprio limite, são recusadas
+ * enquanto o uso do limite de leituras passar de {@code products.admission.write.shed-when-reads-above}.
+ * <p>
+ * O stream SSE, a importação e a exportação ficam de fora: são longos por natureza, têm
+ * controle de vazão próprio e distorceriam a latência usada para ajustar os limites.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    static final Set<String> UNLIMITED_PATHS = Set.of("/products/stream", "/products/import", "/products/export");
+
+    enum TrafficClass {
+        READ, WRITE;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    Logger log = Logger.getLogger(AdmissionController.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "products.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "products.admission.read.initial-limit", defaultValue = "200")
+    int readInitialLimit;
+
+    @ConfigProperty(name = "products.admission.read.min-limit", defaultValue = "20")
+    int readMinLimit;
+
+    @ConfigProperty(name = "products.admission.read.max-limit", defaultValue = "1000")
+    int readMaxLimit;
+
+    @ConfigProperty(name = "products.admission.read.latency-target", defaultValue = "PT0.1S")
+    Duration readLatencyTarget;
+
+    @ConfigProperty(name = "products.admission.write.initial-limit", defaultValue = "50")
+    int writeInitialLimit;
+
+    @ConfigProperty(name = "products.admission.write.min-limit", defaultValue = "5")
+    int writeMinLimit;
+
+    @ConfigProperty(name = "products.admission.write.max-limit", defaultValue = "200")
+    int writeMaxLimit;
+
+    @ConfigProperty(name = "products.admission.write.latency-target", defaultValue = "PT0.25S")
+    Duration writeLatencyTarget;
+
+    @ConfigProperty(name = "products.admission.write.shed-when-reads-above", defaultValue = "0.8")
+    double shedWritesAboveReadUtilization;
+
+    @ConfigProperty(name = "products.admission.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "products.admission.retry-after", defaultValue = "1")
+    int retryAfterSeconds;
+
+    @ConfigProperty(name = "products.admission.readiness-window", defaultValue = "PT10S")
+    Duration readinessWindow;
+
+    @ConfigProperty(name = "products.admission.readiness-rejection-ratio", defaultValue = "0.5")
+    double readinessRejectionRatio;
+
+    private AdaptiveLimit reads;
+    private AdaptiveLimit writes;
+    private Counter readRejections;
+    private Counter writeRejections;
+    private String overloadedBody;
+
+    /** Leituras admitidas e recusadas; usadas pela verificação de prontidão. */
+    RejectionWindow readOutcomes;
+
+    @PostConstruct
+    void init() {
+        reads = new AdaptiveLimit(readInitialLimit, readMinLimit, readMaxLimit, readLatencyTarget.toNanos(),
+                backoffRatio);
+        writes = new AdaptiveLimit(writeInitialLimit, writeMinLimit, writeMaxLimit, writeLatencyTarget.toNanos(),
+                backoffRatio);
+        readOutcomes = new RejectionWindow(readinessWindow.toNanos(), 5);
+        readRejections = meters(TrafficClass.READ, reads);
+        writeRejections = meters(TrafficClass.WRITE, writes);
+        try {
+            overloadedBody = objectMapper.writeValueAsString(new ProductErrorDTO("Serviço sobrecarregado",
+                    "SERVICE_OVERLOADED", List.of("Tente novamente em " + retryAfterSeconds + " segundo(s)")));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Counter meters(TrafficClass trafficClass, AdaptiveLimit limit) {
+        Gauge.builder("products.admission.limit", limit, AdaptiveLimit::limit)
+                .description("Limite atual de requisições simultâneas")
+                .tag("class", trafficClass.tag())
+                .register(registry);
+        Gauge.builder("products.admission.in.flight", limit, AdaptiveLimit::inFlight)
+                .description("Requisições admitidas em andamento")
+                .tag("class", trafficClass.tag())
+                .register(registry);
+        return Counter.builder("products.admission.rejected")
+                .description("Requisições recusadas por sobrecarga")
+                .tag("class", trafficClass.tag())
+                .register(registry);
+    }
+
+    /** Ordem anterior à das rotas de importação e exportação e à do RESTEasy. */
+    void register(@Observes Router router) {
+        if (enabled) {
+            router.route("/products*").order(-2).handler(this::admit);
+        }
+    }
+
+    void admit(RoutingContext routingContext) {
+        if (UNLIMITED_PATHS.contains(routingContext.normalizedPath())) {
+            routingContext.next();
+            return;
+        }
+        TrafficClass trafficClass = classify(routingContext.request().method());
+        AdaptiveLimit limit = trafficClass == TrafficClass.READ ? reads : writes;
+        boolean admitted = tryAcquire(trafficClass);
+        if (trafficClass == TrafficClass.READ) {
+            readOutcomes.record(!admitted, System.nanoTime());
+        }
+        if (!admitted) {
+            reject(routingContext, trafficClass);
+            return;
+        }
+        long start = System.nanoTime();
+        Runnable release = () -> {
+            long now = System.nanoTime();
+            limit.release(now - start, now);
+        };
+        routingContext.addEndHandler().subscribe().with(ignored -> release.run(), failure -> release.run());
+        routingContext.next();
+    }
+
+    static TrafficClass classify(HttpMethod method) {
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS
+                ? TrafficClass.READ
+                : TrafficClass.WRITE;
+    }
+
+    boolean tryAcquire(TrafficClass trafficClass) {
+        if (trafficClass == TrafficClass.READ) {
+            return reads.tryAcquire();
+        }
+        return reads.utilization() < shedWritesAboveReadUtilization && writes.tryAcquire();
+    }
+
+    private void reject(RoutingContext routingContext, TrafficClass trafficClass) {
+        if (trafficClass == TrafficClass.READ) {
+            readRejections.increment();
+        } else {
+            writeRejections.increment();
+        }
+        log.debugf("Requisição recusada por sobrecarga: %s %s", routingContext.request().method(),
+                routingContext.normalizedPath());
+        routingContext.response()
+                .setStatusCode(503)
+                .putHeader("Retry-After", Integer.toString(retryAfterSeconds))
+                .putHeader("Content-Type", "application/json")
+                .endAndForget(overloadedBody);
+    }
+
+    /**
+     * A instância só é considerada saturada se recusou ao menos {@code readiness-rejection-ratio}
+     * das leituras em cada trecho da janela, e nunca com o limite de leituras já no mínimo: nesse
+     * caso a lentidão vem das dependências, e tirar a instância do balanceador só concentraria a
+     * carga nas demais.
+     *
+     * @param nowNanos instante atual, em {@link System#nanoTime()}
+     * @return se as leituras estão sendo recusadas de forma sustentada
+     */
+    boolean readsSaturated(long nowNanos) {
+        return !reads.atMinimum() && readOutcomes.sustainedAbove(readinessRejectionRatio, nowNanos);
+    }
+
+    AdaptiveLimit reads() {
+        return reads;
+    }
+
+    AdaptiveLimit writes() {
+        return writes;
+    }
+}
@@ -0,0 +1,36 @@
+package org.acme.admission;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Prontidão conforme a saturação da instância: fica DOWN só quando a maior parte das leituras
+ * é recusada durante toda a {@code products.admission.readiness-window}, para que o balanceador
+ * desvie tráfego para outras instâncias. Recusas isoladas não bastam: numa sobrecarga geral todas
+ * as instâncias recusariam ao mesmo tempo e sairiam juntas do balanceador. Escritas descartadas
+ * sozinhas não afetam a prontidão, porque a instância ainda atende leituras.
+ */
+@Readiness
+@ApplicationScoped
+public class AdmissionReadinessCheck implements HealthCheck {
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Override
+    public HealthCheckResponse call() {
+        AdaptiveLimit reads = admissionController.reads();
+        AdaptiveLimit writes = admissionController.writes();
+        return HealthCheckResponse.named("products-admission")
+                .status(!admissionController.readsSaturated(System.nanoTime()))
+                .withData("readLimit", reads.limit())
+                .withData("readInFlight", reads.inFlight())
+                .withData("writeLimit", writes.limit())
+                .withData("writeInFlight", writes.inFlight())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package org.acme.admission;
+
+import java.util.Arrays;
+
+/**
+ * Contagem de requisições admitidas e recusadas numa janela deslizante dividida em intervalos
+ * fixos. Serve para distinguir uma sobrecarga sustentada de recusas isoladas num pico curto.
+ */
+final class RejectionWindow {
+
+    private final long bucketNanos;
+    private final int buckets;
+    private final long[] epochs;
+    private final long[] admitted;
+    private final long[] rejected;
+
+    /**
+     * @param windowNanos duração da janela
+     * @param buckets     intervalos em que a janela é dividida
+     */
+    RejectionWindow(long windowNanos, int buckets) {
+        this.bucketNanos = Math.max(1, windowNanos / buckets);
+        this.buckets = buckets;
+        // um intervalo a mais para o que está em andamento, que não entra na avaliação
+        this.epochs = new long[buckets + 1];
+        this.admitted = new long[buckets + 1];
+        this.rejected = new long[buckets + 1];
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    /**
+     * @param wasRejected se a requisição foi recusada
+     * @param nowNanos    instante atual, em {@link System#nanoTime()}
+     */
+    synchronized void record(boolean wasRejected, long nowNanos) {
+        long epoch = Math.floorDiv(nowNanos, bucketNanos);
+        int slot = (int) Math.floorMod(epoch, (long) epochs.length);
+        if (epochs[slot] != epoch) {
+            epochs[slot] = epoch;
+            admitted[slot] = 0;
+            rejected[slot] = 0;
+        }
+        if (wasRejected) {
+            rejected[slot]++;
+        } else {
+            admitted[slot]++;
+        }
+    }
+
+    /**
+     * @param ratio    fração mínima de recusas
+     * @param nowNanos instante atual, em {@link System#nanoTime()}
+     * @return se cada intervalo completo da janela teve tráfego e ao menos {@code ratio} de recusas
+     */
+    synchronized boolean sustainedAbove(double ratio, long nowNanos) {
+        long current = Math.floorDiv(nowNanos, bucketNanos);
+        for (long epoch = current - buckets; epoch < current; epoch++) {
+            int slot = (int) Math.floorMod(epoch, (long) epochs.length);
+            long total = admitted[slot] + rejected[slot];
+            if (epochs[slot] != epoch || total == 0 || rejected[slot] < ratio * total) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,175 @@
+package org.acme.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductOutputDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Cache em memória de produtos por SKU, posicionado na frente do repositório.
+ * Guarda tanto produtos encontrados quanto SKUs inexistentes (cache negativo), cada um com seu TTL,
+ * e publica acertos, falhas e remoções no registro do Micrometer. Falhas concorrentes para o mesmo
+ * SKU compartilham uma única busca na origem.
+ * <p>
+ * Cada invalidação avança a geração do SKU. Uma busca só guarda o resultado se a geração não mudou
+ * desde que começou: uma busca iniciada antes de uma gravação não devolve ao cache o estado anterior
+ * a ela depois da invalidação.
+ */
+@ApplicationScoped
+public class ProductSkuCache {
+
+    static final String CACHE_NAME = "products-by-sku";
+
+    @ConfigProperty(name = "products.cache.sku.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    @ConfigProperty(name = "products.cache.sku.ttl", defaultValue = "PT5M")
+    Duration ttl;
+
+    @ConfigProperty(name = "products.cache.sku.negative-ttl", defaultValue = "PT10S")
+    Duration negativeTtl;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<String, Optional<ProductOutputDTO>> cache;
+
+    private SingleFlight<String, ProductOutputDTO> loads;
+
+    /** Gerações de invalidação, por faixa de SKUs; uma colisão apenas descarta um resultado a mais. */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    private static final int GENERATION_SLOTS = 4096;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<ProductOutputDTO>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<ProductOutputDTO> value, long currentTime) {
+                        return value.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<ProductOutputDTO> value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<ProductOutputDTO> value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        loads = new SingleFlight<>(registry, CACHE_NAME);
+    }
+
+    /**
+     * Obtém o produto do cache ou, na ausência, do {@code loader}, armazenando o resultado.
+     * Chamadas simultâneas para o mesmo SKU aguardam a mesma execução do {@code loader}.
+     *
+     * @param sku    SKU procurado
+     * @param loader função que busca o produto na origem; deve emitir {@code null} se o SKU não existir
+     * @return produto encontrado ou {@code null} se o SKU não existir
+     */
+    public Uni<ProductOutputDTO> get(String sku, Function<String, Uni<ProductOutputDTO>> loader) {
+        Optional<ProductOutputDTO> cached = cache.getIfPresent(sku);
+        if (cached != null) {
+            return Uni.createFrom().item(cached.orElse(null));
+        }
+        return loads.execute(sku, key -> {
+            long generation = generation(key);
+            return loader.apply(key)
+                    .invoke(product -> put(key, generation, product));
+        });
+    }
+
+    /**
+     * Geração atual do SKU, a ser lida antes de uma busca feita fora do cache e informada em
+     * {@link #put(String, long, ProductOutputDTO)}.
+     *
+     * @param sku SKU procurado
+     * @return geração de invalidação do SKU
+     */
+    public long generation(String sku) {
+        return generations.get(slot(sku));
+    }
+
+    /**
+     * Consulta o cache sem acionar a origem.
+     *
+     * @param sku SKU procurado
+     * @return entrada do SKU, vazia se o SKU for sabidamente inexistente, ou {@code null} se não estiver em cache
+     */
+    public Optional<ProductOutputDTO> getIfPresent(String sku) {
+        return cache.getIfPresent(sku);
+    }
+
+    /**
+     * Retorna as entradas já presentes no cache para os SKUs informados.
+     * Um {@link Optional} vazio indica SKU sabidamente inexistente.
+     *
+     * @param skus SKUs procurados
+     * @return entradas encontradas, indexadas por SKU
+     */
+    public Map<String, Optional<ProductOutputDTO>> getAllPresent(Iterable<String> skus) {
+        return cache.getAllPresent(skus);
+    }
+
+    /**
+     * Armazena o resultado de uma busca feita fora do cache, a menos que o SKU tenha sido invalidado
+     * depois que a busca começou; nesse caso o resultado pode ser anterior à gravação e é descartado.
+     *
+     * @param sku        SKU procurado
+     * @param generation geração lida com {@link #generation(String)} antes da busca
+     * @param product    produto encontrado ou {@code null} se o SKU não existir
+     */
+    public void put(String sku, long generation, ProductOutputDTO product) {
+        // a verificação e a gravação acontecem dentro do compute, que exclui o compute de invalidate()
+        cache.asMap().compute(sku, (key, current) -> generations.get(slot(key)) == generation
+                ? Optional.ofNullable(product)
+                : current);
+    }
+
+    /**
+     * Remove a entrada do SKU, seja ela positiva ou negativa. Uma busca em andamento para o SKU
+     * deixa de ser compartilhada: as chamadas seguintes fazem uma nova busca, posterior à gravação.
+     *
+     * @param sku SKU alterado
+     */
+    public void invalidate(String sku) {
+        if (sku != null) {
+            cache.asMap().compute(sku, (key, current) -> {
+                generations.incrementAndGet(slot(key));
+                return null;
+            });
+            loads.forget(sku);
+        }
+    }
+
+    private static int slot(String sku) {
+        int hash = sku.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_SLOTS - 1);
+    }
+}
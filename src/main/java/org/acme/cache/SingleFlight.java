@@ -0,0 +1,87 @@
+package org.acme.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Agrupa buscas concorrentes pela mesma chave: enquanto uma busca estiver em andamento,
+ * novas chamadas para a chave recebem o resultado dela em vez de iniciar outra.
+ * A busca é removida ao terminar, com sucesso ou falha; o resultado não fica guardado.
+ *
+ * @param <K> tipo da chave
+ * @param <V> tipo do resultado
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Uni<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter issued;
+    private final Counter coalesced;
+
+    /**
+     * @param registry registro onde os contadores {@code products.singleflight.requests} são publicados
+     * @param name     nome do grupo de buscas, usado como tag
+     */
+    public SingleFlight(MeterRegistry registry, String name) {
+        issued = Counter.builder("products.singleflight.requests")
+                .description("Buscas por chave, separadas entre executadas e agrupadas a uma busca em andamento")
+                .tags("name", name, "outcome", "issued")
+                .register(registry);
+        coalesced = Counter.builder("products.singleflight.requests")
+                .description("Buscas por chave, separadas entre executadas e agrupadas a uma busca em andamento")
+                .tags("name", name, "outcome", "coalesced")
+                .register(registry);
+    }
+
+    /**
+     * Executa o {@code loader} para a chave, ou aguarda a execução já em andamento.
+     * Cada assinante recebe o resultado no seu próprio contexto do Vert.x.
+     *
+     * @param key    chave da busca
+     * @param loader busca a ser executada uma única vez por rodada
+     * @return resultado compartilhado da busca
+     */
+    public Uni<V> execute(K key, Function<K, Uni<V>> loader) {
+        return Uni.createFrom().deferred(() -> {
+            Context context = Vertx.currentContext();
+            boolean[] leader = { false };
+            Uni<V> shared = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return flight(k, loader);
+            });
+            (leader[0] ? issued : coalesced).increment();
+            return context == null ? shared : shared.emitOn(task -> context.runOnContext(unused -> task.run()));
+        });
+    }
+
+    private Uni<V> flight(K key, Function<K, Uni<V>> loader) {
+        @SuppressWarnings("unchecked")
+        Uni<V>[] self = new Uni[1];
+        self[0] = Uni.createFrom().deferred(() -> loader.apply(key))
+                .onTermination().invoke(() -> inFlight.remove(key, self[0]))
+                .memoize().indefinitely();
+        return self[0];
+    }
+
+    /**
+     * Desassocia da chave a busca em andamento, se houver: quem já aguarda continua recebendo o
+     * resultado dela, mas as próximas chamadas iniciam outra busca. Usado quando o valor muda
+     * e o resultado da busca em andamento pode estar desatualizado.
+     *
+     * @param key chave da busca
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /** Quantidade de chaves com busca em andamento. */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
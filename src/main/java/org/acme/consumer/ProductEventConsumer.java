@@ -0,0 +1,86 @@
+package org.acme.consumer;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.cache.ProductSkuCache;
+import org.acme.dto.ProductEventDTO;
+import org.acme.dto.ProductOutputDTO;
+import org.acme.exporter.ProductExporter;
+import org.acme.index.ProductExistenceIndex;
+import org.acme.index.ProductSearchIndex;
+import org.acme.model.ProductEventType;
+import org.acme.producer.ProductOutProducer;
+import org.acme.repository.ReadReplicaRouter;
+import org.acme.stream.ProductEventBroadcaster;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+/**
+ * Consome os eventos de produto publicados no tópico de produtos para manter
+ * os caches e índices locais coerentes com alterações feitas por outras instâncias,
+ * e repassa cada evento aos assinantes do stream de produtos desta instância.
+ */
+@ApplicationScoped
+public class ProductEventConsumer {
+    Logger log = Logger.getLogger(ProductEventConsumer.class);
+
+    @Inject
+    ProductSkuCache productSkuCache;
+
+    @Inject
+    ProductExistenceIndex productExistenceIndex;
+
+    @Inject
+    ProductSearchIndex productSearchIndex;
+
+    @Inject
+    ProductEventBroadcaster productEventBroadcaster;
+
+    @Inject
+    ReadReplicaRouter readReplicaRouter;
+
+    @Inject
+    ProductExporter productExporter;
+
+    @Incoming("products-in")
+    public void consume(ConsumerRecord<String, ProductOutputDTO> record) {
+        ProductOutputDTO product = record.value();
+        ProductEventType eventType = eventType(record.headers().lastHeader(ProductOutProducer.EVENT_TYPE_HEADER));
+        log.debugf("Evento de produto recebido: sku=%s, tipo=%s", product.getSku(), eventType);
+        if (eventType == ProductEventType.PRODUCT_SNAPSHOT || eventType == ProductEventType.SNAPSHOT_COMPLETED) {
+            // o snapshot repete o estado do banco, que esta instância já tem, e pode estar atrás
+            // de alterações publicadas antes dele
+            return;
+        }
+        if (eventType != ProductEventType.PRODUCT_DELETED) {
+            productExistenceIndex.add(product.getSku(), product.getName());
+            productSearchIndex.put(product);
+        } else {
+            productSearchIndex.remove(product);
+        }
+        // gravações de outras instâncias também são lidas do primário até a réplica alcançá-las
+        readReplicaRouter.markWritten(product.getSku());
+        productSkuCache.invalidate(product.getSku());
+        productExporter.changed(product.getSku());
+        productEventBroadcaster.publish(new ProductEventDTO(eventType, product));
+    }
+
+    /**
+     * Eventos sem cabeçalho de tipo são tratados como alteração.
+     */
+    private static ProductEventType eventType(Header header) {
+        if (header == null) {
+            return ProductEventType.PRODUCT_UPDATED;
+        }
+        try {
+            return ProductEventType.valueOf(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return ProductEventType.PRODUCT_UPDATED;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.acme.consumer;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.serialization.ProductBinaryCodec;
+
+import io.quarkus.kafka.client.serialization.ObjectMapperDeserializer;
+
+/**
+ * Aceita produtos publicados tanto em JSON quanto no formato binário de {@link ProductBinaryCodec}.
+ */
+public class ProductOutputDTODeserializer extends ObjectMapperDeserializer<ProductOutputDTO> {
+
+    public ProductOutputDTODeserializer() {
+        super(ProductOutputDTO.class);
+    }
+
+    @Override
+    public ProductOutputDTO deserialize(String topic, byte[] data) {
+        if (ProductBinaryCodec.isBinary(data)) {
+            return ProductBinaryCodec.decode(data);
+        }
+        return super.deserialize(topic, data);
+    }
+}
@@ -0,0 +1,33 @@
+package org.acme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.acme.exception.ApiException;
+
+/**
+ * Resultado de um item da criação de produtos em lote.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchItemDTO {
+
+    public enum Status {
+        CREATED, CONFLICT, INVALID
+    }
+
+    private int index;
+    private String sku;
+    private Status status;
+    private ProductOutputDTO product;
+    private ProductErrorDTO error;
+
+    public static ProductBatchItemDTO created(int index, ProductOutputDTO product) {
+        return new ProductBatchItemDTO(index, product.getSku(), Status.CREATED, product, null);
+    }
+
+    public static ProductBatchItemDTO failed(int index, String sku, Status status, ApiException exception) {
+        return new ProductBatchItemDTO(index, sku, status, null, ProductErrorDTO.fromException(exception));
+    }
+}
@@ -0,0 +1,40 @@
+package org.acme.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da criação de produtos em lote, com um item por produto enviado, na ordem original.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchOutputDTO {
+
+    private int created;
+    private int conflicts;
+    private int invalid;
+    private List<ProductBatchItemDTO> items;
+
+    public static ProductBatchOutputDTO fromItems(List<ProductBatchItemDTO> items) {
+        int created = 0;
+        int conflicts = 0;
+        int invalid = 0;
+        for (ProductBatchItemDTO item : items) {
+            switch (item.getStatus()) {
+                case CREATED:
+                    created++;
+                    break;
+                case CONFLICT:
+                    conflicts++;
+                    break;
+                default:
+                    invalid++;
+            }
+        }
+        return new ProductBatchOutputDTO(created, conflicts, invalid, items);
+    }
+}
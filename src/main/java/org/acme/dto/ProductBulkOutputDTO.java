@@ -0,0 +1,19 @@
+package org.acme.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da busca de vários produtos por SKU.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBulkOutputDTO {
+
+    private List<ProductOutputDTO> found;
+    private List<String> missing;
+}
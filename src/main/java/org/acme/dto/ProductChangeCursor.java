@@ -0,0 +1,45 @@
+package org.acme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Posição no feed de mudanças: transação que gravou a alteração e, dentro dela, a ordem da
+ * alteração. No texto, {@code <transação>.<ordem>}; {@code 0} é o início do feed.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ProductChangeCursor {
+
+    public static final ProductChangeCursor START = new ProductChangeCursor(0, 0);
+
+    private final long xid;
+    private final long seq;
+
+    /**
+     * @return a posição, ou {@code null} se o texto não for um cursor válido
+     */
+    public static ProductChangeCursor parse(String value) {
+        if (value == null || value.equals("0")) {
+            return START;
+        }
+        int dot = value.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            long xid = Long.parseLong(value.substring(0, dot));
+            long seq = Long.parseLong(value.substring(dot + 1));
+            return xid >= 0 && seq >= 0 ? new ProductChangeCursor(xid, seq) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return xid + "." + seq;
+    }
+}
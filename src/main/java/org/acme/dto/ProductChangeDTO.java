@@ -0,0 +1,33 @@
+package org.acme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.acme.model.Product;
+import org.acme.model.ProductEventType;
+
+/**
+ * Última alteração de um produto no feed de mudanças.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeDTO {
+
+    /** Posição da alteração no feed; serve de cursor para continuar a partir dela. */
+    private String position;
+    private ProductEventType type;
+    private ProductOutputDTO product;
+
+    /**
+     * O feed guarda só o estado atual: um produto criado e depois alterado aparece uma
+     * única vez, como alteração.
+     */
+    public static ProductChangeDTO fromEntity(Product product) {
+        ProductEventType type = product.deletedAt != null ? ProductEventType.PRODUCT_DELETED
+                : product.version != null && product.version > 0 ? ProductEventType.PRODUCT_UPDATED
+                        : ProductEventType.PRODUCT_CREATED;
+        return new ProductChangeDTO(new ProductChangeCursor(product.changeXid, product.changeSeq).toString(), type,
+                ProductOutputDTO.fromEntity(product));
+    }
+}
@@ -0,0 +1,21 @@
+package org.acme.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página do feed de mudanças. {@code next} é o cursor da próxima chamada; se a página
+ * vier vazia, é o mesmo cursor recebido.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangesOutputDTO {
+
+    private List<ProductChangeDTO> changes;
+    private String next;
+    private boolean hasMore;
+}
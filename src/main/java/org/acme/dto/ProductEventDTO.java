@@ -0,0 +1,18 @@
+package org.acme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.acme.model.ProductEventType;
+
+/**
+ * Alteração de produto entregue aos assinantes do stream de produtos.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductEventDTO {
+
+    private ProductEventType type;
+    private ProductOutputDTO product;
+}
@@ -0,0 +1,29 @@
+package org.acme.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Andamento de uma importação de produtos, enviado a cada bloco gravado e ao final.
+ * Os totais são acumulados desde o início; {@code failures} traz apenas os itens do bloco
+ * que não foram criados, com {@code index} igual à linha do arquivo (a partir de 1).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportProgressDTO {
+
+    private long processed;
+    private long created;
+    private long conflicts;
+    private long invalid;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private boolean done;
+    /** Motivo da interrupção da importação; {@code null} se ela seguiu até o fim do arquivo. */
+    private String error;
+    private List<ProductBatchItemDTO> failures;
+}
@@ -19,9 +19,11 @@ public class ProductOutputDTO {
     private String name;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public static ProductOutputDTO fromEntity(Product product) {
-        return new ProductOutputDTO(product.id, product.sku, product.name, product.createdAt, product.updatedAt);
+        return new ProductOutputDTO(product.id, product.sku, product.name, product.createdAt, product.updatedAt,
+                product.version);
     }
 
     public static List<ProductOutputDTO> fromEntities(List<Product> products) {
@@ -0,0 +1,21 @@
+package org.acme.dto;
+
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alteração parcial de produto; campos ausentes são mantidos. O SKU não pode ser alterado.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPatchDTO {
+
+    @Size(min = 3, max = 40, message = "{nome.size}")
+    @Pattern(regexp = "^[a-zA-Z0-9\\s-]+$", message = "{nome.pattern}")
+    public String name;
+}
@@ -0,0 +1,24 @@
+package org.acme.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Andamento da republicação do catálogo no tópico de produtos.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSnapshotDTO {
+
+    private String snapshotId;
+    private LocalDateTime startedAt;
+    private long published;
+    private long elapsedMillis;
+    private boolean done;
+    /** Motivo da interrupção do snapshot; {@code null} se ele está em andamento ou terminou. */
+    private String error;
+}
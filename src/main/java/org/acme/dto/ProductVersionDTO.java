@@ -0,0 +1,21 @@
+package org.acme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identificação e versão de um produto, suficientes para montar sua ETag.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductVersionDTO {
+
+    private Long id;
+    private Long version;
+
+    public static ProductVersionDTO fromOutput(ProductOutputDTO product) {
+        return new ProductVersionDTO(product.getId(), product.getVersion());
+    }
+}
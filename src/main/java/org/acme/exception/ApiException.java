@@ -51,7 +51,7 @@ public abstract class ApiException extends WebApplicationException {
     public String toString() {
         return "ApiException{" +
                 "errorCode='" + errorCode + '\'' +
-                ", details='" + details.toString() + '\'' +
+                ", details='" + getDetails() + '\'' +
                 ", message='" + getMessage() + '\'' +
                 ", status=" + getResponse().getStatus() +
                 '}';
@@ -0,0 +1,27 @@
+package org.acme.exception;
+
+import javax.persistence.OptimisticLockException;
+
+import org.hibernate.StaleStateException;
+
+/**
+ * Identifica falhas do bloqueio otimista, quando outra transação alterou o registro
+ * entre a leitura e a gravação.
+ */
+public final class OptimisticLockFailures {
+
+    private OptimisticLockFailures() {
+    }
+
+    public static boolean isOptimisticLockFailure(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof OptimisticLockException || current instanceof StaleStateException) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -6,9 +6,17 @@ import javax.ws.rs.core.Response;
 
 public class ProductAlreadyExistException extends ProductException {
 
+    private final String sku;
+    private final String name;
+
     public ProductAlreadyExistException(String sku, String name) {
-        super("Produto já existe", "PRODUCT_ALREADY_EXISTS",
-                List.of(String.format("Já existe um produto com o SKU %s ou nome %s", sku, name)),
-                Response.Status.CONFLICT);
+        super("Produto já existe", "PRODUCT_ALREADY_EXISTS", Response.Status.CONFLICT);
+        this.sku = sku;
+        this.name = name;
+    }
+
+    @Override
+    public List<String> getDetails() {
+        return List.of("Já existe um produto com o SKU " + sku + " ou nome " + name);
     }
 }
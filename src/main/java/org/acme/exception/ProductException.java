@@ -4,9 +4,24 @@ import java.util.List;
 
 import javax.ws.rs.core.Response;
 
+/**
+ * Exceção de domínio de produto. Representa um resultado esperado da API (404, 409, 400...),
+ * e não uma falha do programa, por isso não captura a pilha de chamadas: sob tráfego com
+ * muitos erros, a captura seria a maior parte do custo de cada resposta.
+ * Subclasses que dependem de argumentos montam os detalhes apenas em {@link #getDetails()}.
+ */
 public class ProductException extends ApiException {
 
     public ProductException(String message, String errorCode, List<String> details, Response.Status status) {
         super(message, errorCode, details, status);
     }
-}
\ No newline at end of file
+
+    protected ProductException(String message, String errorCode, Response.Status status) {
+        super(message, errorCode, status);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
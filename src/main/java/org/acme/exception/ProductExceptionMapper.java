@@ -1,24 +1,59 @@
 package org.acme.exception;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.acme.dto.ProductErrorDTO;
+import org.jboss.logging.Logger;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
 @Provider
 public class ProductExceptionMapper {
 
+    private static final Logger log = Logger.getLogger(ProductExceptionMapper.class);
+
+    private static final ConcurrentMap<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+    /**
+     * Conta as respostas de erro por tipo de exceção em {@code products.errors}.
+     * Usa o registro global, ao qual o Quarkus adiciona o registro da aplicação, porque os
+     * mapeadores também são instanciados fora do CDI.
+     */
+    static void countError(Throwable exception, int status) {
+        errors.computeIfAbsent(exception.getClass(), type -> Counter.builder("products.errors")
+                .description("Respostas de erro por tipo de exceção")
+                .tag("type", type.getSimpleName())
+                .tag("status", String.valueOf(status))
+                .register(Metrics.globalRegistry))
+                .increment();
+    }
+
+    /**
+     * Resposta de erro de domínio: apenas o DTO e a resposta são alocados; os detalhes
+     * da exceção são montados aqui, uma única vez.
+     */
+    static Response errorResponse(ApiException exception, int status) {
+        countError(exception, status);
+        return Response.status(status)
+                .entity(ProductErrorDTO.fromException(exception))
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .build();
+    }
+
     @Provider
     public static class ProductNotFoundExceptionMapper implements ExceptionMapper<ProductNotFoundException> {
         @Override
         public Response toResponse(ProductNotFoundException exception) {
-            ProductErrorDTO error = ProductErrorDTO.fromException(exception);
-            return Response.status(404)
-                    .entity(error)
-                    .type(MediaType.APPLICATION_JSON)
-                    .build();
+            return errorResponse(exception, 404);
         }
     }
 
@@ -26,11 +61,7 @@ public class ProductExceptionMapper {
     public static class ProductValidationExceptionMapper implements ExceptionMapper<ProductValidationException> {
         @Override
         public Response toResponse(ProductValidationException exception) {
-            ProductErrorDTO error = ProductErrorDTO.fromException(exception);
-            return Response.status(400)
-                    .entity(error)
-                    .type(MediaType.APPLICATION_JSON)
-                    .build();
+            return errorResponse(exception, 400);
         }
     }
 
@@ -38,11 +69,34 @@ public class ProductExceptionMapper {
     public static class ProductAlreadyExistExceptionMapper implements ExceptionMapper<ProductAlreadyExistException> {
         @Override
         public Response toResponse(ProductAlreadyExistException exception) {
-            ProductErrorDTO error = ProductErrorDTO.fromException(exception);
-            return Response.status(409)
-                    .entity(error)
-                    .type(MediaType.APPLICATION_JSON)
-                    .build();
+            return errorResponse(exception, 409);
+        }
+    }
+
+    @Provider
+    public static class ProductIdempotencyKeyReusedExceptionMapper
+            implements ExceptionMapper<ProductIdempotencyKeyReusedException> {
+        @Override
+        public Response toResponse(ProductIdempotencyKeyReusedException exception) {
+            return errorResponse(exception, 400);
+        }
+    }
+
+    @Provider
+    public static class ProductSnapshotInProgressExceptionMapper
+            implements ExceptionMapper<ProductSnapshotInProgressException> {
+        @Override
+        public Response toResponse(ProductSnapshotInProgressException exception) {
+            return errorResponse(exception, 409);
+        }
+    }
+
+    @Provider
+    public static class ProductPreconditionFailedExceptionMapper
+            implements ExceptionMapper<ProductPreconditionFailedException> {
+        @Override
+        public Response toResponse(ProductPreconditionFailedException exception) {
+            return errorResponse(exception, 412);
         }
     }
 
@@ -53,8 +107,9 @@ public class ProductExceptionMapper {
             ProductErrorDTO error = new ProductErrorDTO(
                     "Erro interno do servidor",
                     "INTERNAL_SERVER_ERROR",
-                    java.util.List.of(exception.getMessage()));
-            exception.printStackTrace(); // Logar stacktrace para troubleshooting
+                    List.of(Objects.toString(exception.getMessage(), exception.getClass().getName())));
+            log.error("Erro interno do servidor", exception);
+            countError(exception, 500);
             return Response.status(500)
                     .entity(error)
                     .type(MediaType.APPLICATION_JSON)
@@ -0,0 +1,20 @@
+package org.acme.exception;
+
+import java.util.List;
+
+import javax.ws.rs.core.Response;
+
+public class ProductIdempotencyKeyReusedException extends ProductException {
+
+    private final String key;
+
+    public ProductIdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key reutilizada", "IDEMPOTENCY_KEY_REUSED", Response.Status.BAD_REQUEST);
+        this.key = key;
+    }
+
+    @Override
+    public List<String> getDetails() {
+        return List.of("A chave " + key + " já foi usada em uma requisição com outro conteúdo");
+    }
+}
@@ -5,22 +5,26 @@ import java.util.List;
 import javax.ws.rs.core.Response;
 
 public class ProductNotFoundException extends ProductException {
-    
+
+    private final Long id;
+    private final String sku;
+
     public ProductNotFoundException(Long id) {
-        super(
-            "Produto não encontrado",
-            "PRODUCT_NOT_FOUND",
-            List.of(String.format("Não foi possível encontrar um produto com o ID %d", id)),
-            Response.Status.NOT_FOUND
-        );
+        super("Produto não encontrado", "PRODUCT_NOT_FOUND", Response.Status.NOT_FOUND);
+        this.id = id;
+        this.sku = null;
     }
 
     public ProductNotFoundException(String sku) {
-        super(
-            "Produto não encontrado",
-            "PRODUCT_NOT_FOUND",
-            List.of(String.format("Não foi possível encontrar um produto com o SKU %s", sku)),
-            Response.Status.NOT_FOUND
-        );
+        super("Produto não encontrado", "PRODUCT_NOT_FOUND", Response.Status.NOT_FOUND);
+        this.id = null;
+        this.sku = sku;
+    }
+
+    @Override
+    public List<String> getDetails() {
+        return List.of(sku != null
+                ? "Não foi possível encontrar um produto com o SKU " + sku
+                : "Não foi possível encontrar um produto com o ID " + id);
     }
-} 
\ No newline at end of file
+}
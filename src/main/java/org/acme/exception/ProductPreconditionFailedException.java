@@ -0,0 +1,20 @@
+package org.acme.exception;
+
+import java.util.List;
+
+import javax.ws.rs.core.Response;
+
+public class ProductPreconditionFailedException extends ProductException {
+
+    private final String sku;
+
+    public ProductPreconditionFailedException(String sku) {
+        super("Produto foi alterado", "PRODUCT_PRECONDITION_FAILED", Response.Status.PRECONDITION_FAILED);
+        this.sku = sku;
+    }
+
+    @Override
+    public List<String> getDetails() {
+        return List.of("O produto com o SKU " + sku + " não está na versão informada em If-Match");
+    }
+}
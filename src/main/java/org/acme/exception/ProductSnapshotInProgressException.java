@@ -0,0 +1,20 @@
+package org.acme.exception;
+
+import java.util.List;
+
+import javax.ws.rs.core.Response;
+
+public class ProductSnapshotInProgressException extends ProductException {
+
+    private final String snapshotId;
+
+    public ProductSnapshotInProgressException(String snapshotId) {
+        super("Snapshot em andamento", "PRODUCT_SNAPSHOT_IN_PROGRESS", Response.Status.CONFLICT);
+        this.snapshotId = snapshotId;
+    }
+
+    @Override
+    public List<String> getDetails() {
+        return List.of("O snapshot " + snapshotId + " ainda está sendo publicado");
+    }
+}
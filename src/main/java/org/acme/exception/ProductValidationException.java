@@ -9,8 +9,7 @@ public class ProductValidationException extends ProductException {
     private final List<String> errors;
 
     public ProductValidationException(List<String> errors) {
-        super("Erro de validação do produto", "VALIDATION_ERROR", List.of("Erro de validação do produto"),
-                Response.Status.BAD_REQUEST);
+        super("Erro de validação do produto", "VALIDATION_ERROR", Response.Status.BAD_REQUEST);
         this.errors = errors;
     }
 
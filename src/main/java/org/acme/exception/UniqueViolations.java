@@ -0,0 +1,33 @@
+package org.acme.exception;
+
+import org.hibernate.JDBCException;
+
+import io.vertx.pgclient.PgException;
+
+/**
+ * Identifica violações de restrição de unicidade vindas do Postgres, seja na forma
+ * original do cliente reativo ({@link PgException}) ou já traduzidas pelo Hibernate.
+ */
+public final class UniqueViolations {
+
+    /** SQLSTATE {@code unique_violation} do Postgres. */
+    static final String UNIQUE_VIOLATION = "23505";
+
+    private UniqueViolations() {
+    }
+
+    public static boolean isUniqueViolation(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof PgException && UNIQUE_VIOLATION.equals(((PgException) current).getCode())) {
+                return true;
+            }
+            if (current instanceof JDBCException && UNIQUE_VIOLATION.equals(((JDBCException) current).getSQLState())) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme.exporter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita a vazão somada de todas as exportações em andamento, em linhas por segundo.
+ * Cada lote reserva a sua fatia de tempo na sequência; um lote que chega antes da sua vez
+ * espera a diferença, e exportações simultâneas dividem a mesma vazão.
+ */
+final class ExportThrottle {
+
+    private final long nanosPerRow;
+    private final AtomicLong next;
+
+    /**
+     * @param rowsPerSecond vazão máxima; zero ou negativo desliga o limite
+     * @param now           instante atual, em {@link System#nanoTime()}
+     */
+    ExportThrottle(int rowsPerSecond, long now) {
+        this.nanosPerRow = rowsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / rowsPerSecond : 0;
+        this.next = new AtomicLong(now);
+    }
+
+    /**
+     * Reserva a vez de um lote.
+     *
+     * @return quanto esperar, em nanossegundos, antes de emitir o lote
+     */
+    long reserve(int rows, long now) {
+        if (nanosPerRow == 0) {
+            return 0;
+        }
+        long cost = rows * nanosPerRow;
+        while (true) {
+            long current = next.get();
+            long start = current - now > 0 ? current : now;
+            if (next.compareAndSet(current, start + cost)) {
+                return start - now;
+            }
+        }
+    }
+}
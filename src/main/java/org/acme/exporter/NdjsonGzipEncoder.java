@@ -0,0 +1,80 @@
+package org.acme.exporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.acme.dto.ProductOutputDTO;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Escreve produtos como NDJSON em um único fluxo gzip, devolvendo os bytes compactados a cada
+ * lote. Ao fim de cada lote o compressor é esvaziado (sync flush), para que o cliente possa
+ * descompactar o que já recebeu; só os bytes do lote ficam em memória. Uma instância por exportação.
+ */
+final class NdjsonGzipEncoder implements AutoCloseable {
+
+    private final ObjectWriter writer;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+    private final GZIPOutputStream gzip;
+
+    NdjsonGzipEncoder(ObjectMapper objectMapper) {
+        // o gerador não deve fechar nem esvaziar o gzip a cada produto
+        this.writer = objectMapper.writerFor(ProductOutputDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        try {
+            this.gzip = new GZIPOutputStream(bytes, 8192, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    byte[] encode(List<ProductOutputDTO> products) {
+        try {
+            for (ProductOutputDTO product : products) {
+                writer.writeValue(gzip, product);
+                gzip.write('\n');
+            }
+            gzip.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return drain();
+    }
+
+    /**
+     * Encerra o fluxo gzip.
+     *
+     * @return os bytes finais, com o rodapé do gzip
+     */
+    byte[] finish() {
+        try {
+            gzip.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return drain();
+    }
+
+    /** Libera o compressor, inclusive quando a exportação é interrompida. */
+    @Override
+    public void close() {
+        try {
+            gzip.close();
+        } catch (IOException e) {
+            // só a memória do compressor interessa aqui
+        }
+    }
+
+    private byte[] drain() {
+        byte[] chunk = bytes.toByteArray();
+        bytes.reset();
+        return chunk;
+    }
+}
@@ -0,0 +1,231 @@
+package org.acme.exporter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.dto.ProductSnapshotDTO;
+import org.acme.exception.ProductSnapshotInProgressException;
+import org.acme.producer.ProductOutProducer;
+import org.acme.repository.ProductRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * Exporta o catálogo de produtos ativos, como NDJSON compactado ou como snapshot no tópico de
+ * produtos. A leitura usa um cursor no servidor e avança em lotes de {@code products.export.batch-size},
+ * de modo que a memória usada não depende do tamanho do catálogo. A vazão somada das exportações é
+ * limitada a {@code products.export.max-rows-per-second}, para não disputar o banco com o tráfego da API.
+ * <p>
+ * O registro de snapshot de um produto é enviado depois de lido, e uma alteração publicada pela
+ * outbox nesse intervalo ficaria antes dele no tópico: na compactação, o estado antigo venceria.
+ * Por isso o snapshot lê do primário, e não da réplica, e deixa de enviar o produto cuja alteração
+ * já foi lida do tópico (ver {@link #changed(String)}). Como o consumo do tópico tem atraso, a
+ * janela diminui mas não desaparece: consumidores devem manter, por SKU, a maior {@code version}.
+ */
+@ApplicationScoped
+public class ProductExporter {
+
+    Logger log = Logger.getLogger(ProductExporter.class);
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    ProductOutProducer productOutProducer;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "products.export.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "products.export.max-rows-per-second", defaultValue = "5000")
+    int maxRowsPerSecond;
+
+    @ConfigProperty(name = "products.export.snapshot.max-in-flight", defaultValue = "128")
+    int snapshotMaxInFlight;
+
+    private ExportThrottle throttle;
+    private Counter httpRows;
+    private Counter kafkaRows;
+    private final AtomicReference<SnapshotRun> snapshot = new AtomicReference<>();
+
+    @PostConstruct
+    void init() {
+        throttle = new ExportThrottle(maxRowsPerSecond, System.nanoTime());
+        httpRows = rowCounter("http");
+        kafkaRows = rowCounter("kafka");
+    }
+
+    private Counter rowCounter(String target) {
+        return Counter.builder("products.export.rows")
+                .description("Produtos exportados por destino")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    /**
+     * Catálogo como NDJSON compactado com gzip: um pedaço do fluxo gzip por lote, terminando
+     * com o rodapé. O fluxo só é lido conforme a demanda de quem assina.
+     */
+    public Multi<byte[]> exportNdjsonGzip() {
+        return Multi.createFrom().resource(() -> new NdjsonGzipEncoder(objectMapper),
+                encoder -> batches(true)
+                        .invoke(batch -> httpRows.increment(batch.size()))
+                        .map(encoder::encode)
+                        .onCompletion().continueWith(() -> List.of(encoder.finish())))
+                .withFinalizer(NdjsonGzipEncoder::close);
+    }
+
+    /**
+     * Inicia a republicação de todos os produtos ativos no tópico de produtos, como
+     * {@code PRODUCT_SNAPSHOT} com o SKU como chave, seguida do marcador {@code SNAPSHOT_COMPLETED}
+     * em cada partição. A publicação continua depois do retorno; o andamento é consultado em
+     * {@link #snapshotStatus()}.
+     *
+     * @return o andamento do snapshot iniciado
+     * @throws ProductSnapshotInProgressException se já houver um snapshot em andamento
+     */
+    public ProductSnapshotDTO startSnapshot() {
+        SnapshotRun run = new SnapshotRun(UUID.randomUUID().toString());
+        SnapshotRun current;
+        do {
+            // a decisão e a mensagem usam a mesma leitura; perder a troca para um snapshot
+            // já concluído só repete a tentativa
+            current = snapshot.get();
+            if (current != null && !current.done) {
+                throw new ProductSnapshotInProgressException(current.id);
+            }
+        } while (!snapshot.compareAndSet(current, run));
+        log.infof("Snapshot de produtos iniciado: id=%s", run.id);
+        batches(false)
+                .onItem().<ProductOutputDTO>disjoint()
+                .onItem().transformToUni(product -> publishSnapshot(run, product))
+                .merge(snapshotMaxInFlight)
+                .collect().last()
+                .chain(() -> productOutProducer.sendSnapshotCompleted(run.id, run.published.get()))
+                .subscribe().with(
+                        ignored -> {
+                            run.finish(null);
+                            log.infof("Snapshot de produtos concluído: id=%s, produtos=%d, alterados durante o"
+                                    + " snapshot=%d, tempo=%dms", run.id, run.published.get(), run.skipped.get(),
+                                    run.elapsedMillis());
+                        },
+                        failure -> {
+                            run.finish(String.valueOf(failure.getMessage()));
+                            log.errorf(failure, "Snapshot de produtos interrompido: id=%s, produtos publicados=%d",
+                                    run.id, run.published.get());
+                        });
+        return run.toDTO();
+    }
+
+    private Uni<Void> publishSnapshot(SnapshotRun run, ProductOutputDTO product) {
+        if (run.changed.contains(product.getSku())) {
+            // a alteração já está no tópico, com um estado mais novo que o lido pelo snapshot
+            run.skipped.incrementAndGet();
+            return Uni.createFrom().voidItem();
+        }
+        return productOutProducer.sendSnapshot(run.id, product)
+                .invoke(() -> {
+                    run.published.incrementAndGet();
+                    kafkaRows.increment();
+                });
+    }
+
+    /**
+     * Registra uma alteração de produto lida do tópico. Durante um snapshot, o produto deixa de
+     * ser republicado, para que o registro do snapshot não fique depois da alteração.
+     *
+     * @param sku SKU alterado
+     */
+    public void changed(String sku) {
+        SnapshotRun run = snapshot.get();
+        if (run != null && !run.done) {
+            run.changed.add(sku);
+        }
+    }
+
+    /**
+     * @return o andamento do último snapshot, ou {@code null} se nenhum foi iniciado
+     */
+    public ProductSnapshotDTO snapshotStatus() {
+        SnapshotRun run = snapshot.get();
+        return run == null ? null : run.toDTO();
+    }
+
+    private Multi<List<ProductOutputDTO>> batches(boolean replicaAllowed) {
+        return productRepository.streamLive(replicaAllowed)
+                .map(ProductOutputDTO::fromEntity)
+                .group().intoLists().of(batchSize)
+                .onItem().call(this::pace);
+    }
+
+    /**
+     * Atrasa o lote até a sua vez no limite de vazão. O timer é criado no contexto atual,
+     * sem ocupar uma thread durante a espera.
+     */
+    private Uni<Void> pace(List<ProductOutputDTO> batch) {
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(throttle.reserve(batch.size(), System.nanoTime()));
+        if (waitMillis == 0) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.createFrom().emitter(emitter -> vertx.setTimer(waitMillis, id -> emitter.complete(null)));
+    }
+
+    private static final class SnapshotRun {
+
+        final String id;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        final AtomicLong published = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        /** SKUs alterados no tópico durante o snapshot; no máximo um por produto. */
+        final Set<String> changed = ConcurrentHashMap.newKeySet();
+        volatile boolean done;
+        volatile String error;
+        volatile long finishNanos;
+
+        SnapshotRun(String id) {
+            this.id = id;
+        }
+
+        void finish(String error) {
+            this.error = error;
+            this.finishNanos = System.nanoTime();
+            this.done = true;
+        }
+
+        long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis((done ? finishNanos : System.nanoTime()) - startNanos);
+        }
+
+        ProductSnapshotDTO toDTO() {
+            return new ProductSnapshotDTO(id, startedAt, published.get(), elapsedMillis(), done, error);
+        }
+    }
+}
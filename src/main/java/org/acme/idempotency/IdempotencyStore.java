@@ -0,0 +1,223 @@
+package org.acme.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.cache.SingleFlight;
+import org.acme.dto.ProductErrorDTO;
+import org.acme.dto.ProductInputDTO;
+import org.acme.dto.ProductOutputDTO;
+import org.acme.exception.ProductIdempotencyKeyReusedException;
+import org.acme.exception.UniqueViolations;
+import org.acme.model.ProductIdempotency;
+import org.acme.repository.ProductIdempotencyRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Guarda, por {@code products.idempotency.ttl}, a primeira resposta de cada {@code Idempotency-Key}
+ * e a repete para as requisições seguintes com a mesma chave, sem executar a criação de novo.
+ * Requisições simultâneas com a mesma chave aguardam a original. As respostas ficam em memória
+ * e, com {@code products.idempotency.persistent}, também na tabela {@code product_idempotency},
+ * para que repetições atendidas por outra instância ou depois de um reinício sejam reconhecidas.
+ * <p>
+ * Só são guardados o sucesso e os erros de domínio; depois de uma falha inesperada a chave
+ * continua livre e a requisição pode ser repetida.
+ */
+@ApplicationScoped
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 255;
+    static final String CACHE_NAME = "products-idempotency";
+
+    Logger log = Logger.getLogger(IdempotencyStore.class);
+
+    @ConfigProperty(name = "products.idempotency.ttl", defaultValue = "PT24H")
+    Duration ttl;
+
+    @ConfigProperty(name = "products.idempotency.maximum-size", defaultValue = "100000")
+    long maximumSize;
+
+    @ConfigProperty(name = "products.idempotency.persistent", defaultValue = "false")
+    boolean persistent;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ProductIdempotencyRepository repository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private Cache<String, IdempotentResponse> cache;
+    private SingleFlight<String, IdempotentResponse> flights;
+    private Counter memoryReplays;
+    private Counter databaseReplays;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        flights = new SingleFlight<>(registry, CACHE_NAME);
+        memoryReplays = replayCounter("memory");
+        databaseReplays = replayCounter("database");
+    }
+
+    private Counter replayCounter(String source) {
+        return Counter.builder("products.idempotency.replays")
+                .description("Respostas repetidas para uma Idempotency-Key já usada, por origem")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    /**
+     * Impressão digital da requisição de criação: uma chave só pode ser repetida com o mesmo conteúdo.
+     */
+    public static String fingerprint(ProductInputDTO input) {
+        return input.getSku() + '\u0000' + input.getName();
+    }
+
+    /**
+     * Executa a {@code action} uma única vez por chave dentro do TTL.
+     *
+     * @param key         valor do cabeçalho {@value #HEADER}
+     * @param fingerprint impressão digital da requisição, comparada com a da original
+     * @param action      criação a executar se a chave ainda não tiver resposta
+     * @return a resposta, marcada como repetição se não foi gerada por esta chamada
+     * @throws ProductIdempotencyKeyReusedException se a chave já foi usada com outro conteúdo
+     */
+    public Uni<IdempotentResponse> execute(String key, String fingerprint, Supplier<Uni<IdempotentResponse>> action) {
+        IdempotentResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            memoryReplays.increment();
+            return Uni.createFrom().item(() -> verify(key, fingerprint, cached.asReplay()));
+        }
+        boolean[] executed = { false };
+        return flights.execute(key, k -> findPersisted(k)
+                .onItem().ifNull().switchTo(() -> {
+                    executed[0] = true;
+                    return action.get().flatMap(response -> persist(k, response));
+                })
+                .invoke(response -> cache.put(k, response)))
+                .map(response -> verify(key, fingerprint, executed[0] ? response : response.asReplay()));
+    }
+
+    private static IdempotentResponse verify(String key, String fingerprint, IdempotentResponse response) {
+        if (!response.getFingerprint().equals(fingerprint)) {
+            throw new ProductIdempotencyKeyReusedException(key);
+        }
+        return response;
+    }
+
+    /**
+     * Busca a resposta na tabela. Uma falha é tratada como ausência: no pior caso a criação é
+     * repetida e recusada pela unicidade do SKU, como sem a chave.
+     */
+    private Uni<IdempotentResponse> findPersisted(String key) {
+        if (!persistent) {
+            return Uni.createFrom().nullItem();
+        }
+        return repository.findSince(key, LocalDateTime.now().minus(ttl))
+                .map(stored -> stored == null ? null : fromEntity(stored))
+                .invoke(response -> {
+                    if (response != null) {
+                        databaseReplays.increment();
+                    }
+                })
+                .onFailure().invoke(throwable -> log.warnf("Erro ao buscar resposta idempotente: chave=%s, erro=%s",
+                        key, throwable.getMessage()))
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Grava a resposta na tabela depois da criação. Se outra instância gravou a mesma chave antes,
+     * a resposta dela prevalece: é relida, repetida a quem chamou e guardada em memória, para que
+     * todas as instâncias respondam igual à chave. Outras falhas não desfazem a criação, apenas
+     * deixam a repetição restrita à memória.
+     *
+     * @return a resposta a devolver para a chave
+     */
+    private Uni<IdempotentResponse> persist(String key, IdempotentResponse response) {
+        if (!persistent) {
+            return Uni.createFrom().item(response);
+        }
+        ProductIdempotency entity = new ProductIdempotency(key, response.getFingerprint(), response.getStatus(),
+                toJson(response.getEntity()));
+        return repository.insert(entity)
+                .replaceWith(response)
+                .onFailure(UniqueViolations::isUniqueViolation)
+                .recoverWithUni(() -> persistedByOther(key, response))
+                .onFailure().invoke(throwable -> log.warnf("Erro ao gravar resposta idempotente: chave=%s, erro=%s",
+                        key, throwable.getMessage()))
+                .onFailure().recoverWithItem(response);
+    }
+
+    private Uni<IdempotentResponse> persistedByOther(String key, IdempotentResponse response) {
+        return repository.findSince(key, LocalDateTime.now().minus(ttl))
+                .map(stored -> {
+                    if (stored == null) {
+                        return response;
+                    }
+                    log.infof("Idempotency-Key atendida antes por outra instância: chave=%s, status=%d, descartado=%d",
+                            key, stored.status, response.getStatus());
+                    databaseReplays.increment();
+                    return fromEntity(stored).asReplay();
+                });
+    }
+
+    @Scheduled(every = "${products.idempotency.cleanup-interval:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> purgeExpired() {
+        if (!persistent) {
+            return Uni.createFrom().voidItem();
+        }
+        return Panache.withTransaction(() -> repository.deleteBefore(LocalDateTime.now().minus(ttl)))
+                .invoke(deleted -> log.debugf("Respostas idempotentes expiradas removidas: quantidade=%d", deleted))
+                .onFailure().invoke(throwable -> log.errorf("Erro ao remover respostas idempotentes: %s",
+                        throwable.getMessage()))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    private IdempotentResponse fromEntity(ProductIdempotency stored) {
+        try {
+            return stored.status < 400
+                    ? IdempotentResponse.created(stored.fingerprint,
+                            objectMapper.readValue(stored.body, ProductOutputDTO.class))
+                    : new IdempotentResponse(stored.fingerprint, stored.status, null,
+                            objectMapper.readValue(stored.body, ProductErrorDTO.class), false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta idempotente inválida: chave=" + stored.key, e);
+        }
+    }
+
+    private String toJson(Object entity) {
+        try {
+            return objectMapper.writeValueAsString(entity);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.acme.idempotency;
+
+import lombok.Getter;
+import org.acme.dto.ProductErrorDTO;
+import org.acme.dto.ProductOutputDTO;
+import org.acme.exception.ApiException;
+
+/**
+ * Resposta de uma criação de produto guardada para uma {@code Idempotency-Key}: o status e o
+ * produto criado ou o erro de domínio, junto da impressão digital da requisição que a gerou.
+ */
+@Getter
+public final class IdempotentResponse {
+
+    private final String fingerprint;
+    private final int status;
+    private final ProductOutputDTO product;
+    private final ProductErrorDTO error;
+    /** Se a resposta é uma repetição da original, e não o resultado desta requisição. */
+    private final boolean replayed;
+
+    IdempotentResponse(String fingerprint, int status, ProductOutputDTO product, ProductErrorDTO error,
+            boolean replayed) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.product = product;
+        this.error = error;
+        this.replayed = replayed;
+    }
+
+    public static IdempotentResponse created(String fingerprint, ProductOutputDTO product) {
+        return new IdempotentResponse(fingerprint, 201, product, null, false);
+    }
+
+    public static IdempotentResponse failed(String fingerprint, ApiException exception) {
+        return new IdempotentResponse(fingerprint, exception.getResponse().getStatus(), null,
+                ProductErrorDTO.fromException(exception), false);
+    }
+
+    /** Corpo da resposta: o produto criado ou o erro. */
+    public Object getEntity() {
+        return product != null ? product : error;
+    }
+
+    IdempotentResponse asReplay() {
+        return replayed ? this : new IdempotentResponse(fingerprint, status, product, error, true);
+    }
+}
@@ -0,0 +1,36 @@
+package org.acme.importer;
+
+import java.util.Locale;
+
+/**
+ * Formatos aceitos pela importação de produtos, identificados pelo Content-Type.
+ */
+public enum ProductImportFormat {
+
+    /** Um {@code ProductInputDTO} em JSON por linha. */
+    NDJSON,
+    /** Cabeçalho com as colunas {@code sku} e {@code name}, em qualquer ordem, e um produto por linha. */
+    CSV;
+
+    /**
+     * @return o formato do Content-Type, ou {@code null} se não for suportado
+     */
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters))
+                .trim().toLowerCase(Locale.ROOT);
+        switch (mediaType) {
+            case "application/x-ndjson":
+            case "application/ndjson":
+            case "application/jsonl":
+                return NDJSON;
+            case "text/csv":
+                return CSV;
+            default:
+                return null;
+        }
+    }
+}
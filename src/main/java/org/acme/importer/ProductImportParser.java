@@ -0,0 +1,115 @@
+package org.acme.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.acme.dto.ProductInputDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Interpreta as linhas de uma importação, uma por vez, guardando apenas a posição no arquivo
+ * e, no CSV, as colunas do cabeçalho. Linhas em branco são ignoradas. Uma instância por importação.
+ */
+final class ProductImportParser {
+
+    private final ProductImportFormat format;
+    private final ObjectMapper objectMapper;
+    private long line;
+    private int skuColumn = -1;
+    private int nameColumn = -1;
+
+    ProductImportParser(ProductImportFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return o registro da linha, ou {@link ProductImportRecord#SKIPPED} se a linha não contiver
+     *         produto (em branco ou cabeçalho do CSV)
+     */
+    ProductImportRecord parse(String text) {
+        line++;
+        if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+            text = text.substring(1);
+        }
+        if (!text.isEmpty() && text.charAt(text.length() - 1) == '\r') {
+            text = text.substring(0, text.length() - 1);
+        }
+        if (text.isBlank()) {
+            return ProductImportRecord.SKIPPED;
+        }
+        return format == ProductImportFormat.NDJSON ? parseJson(text) : parseCsv(text);
+    }
+
+    private ProductImportRecord parseJson(String text) {
+        try {
+            return ProductImportRecord.parsed(line, objectMapper.readValue(text, ProductInputDTO.class));
+        } catch (JsonProcessingException e) {
+            return ProductImportRecord.malformed(line, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private ProductImportRecord parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        if (fields == null) {
+            return ProductImportRecord.malformed(line, "CSV inválido: aspas não fechadas");
+        }
+        if (skuColumn < 0) {
+            for (int i = 0; i < fields.size(); i++) {
+                String column = fields.get(i).trim().toLowerCase(Locale.ROOT);
+                if (column.equals("sku")) {
+                    skuColumn = i;
+                } else if (column.equals("name")) {
+                    nameColumn = i;
+                }
+            }
+            if (skuColumn < 0 || nameColumn < 0) {
+                throw new IllegalArgumentException("O CSV deve começar com um cabeçalho com as colunas sku e name");
+            }
+            return ProductImportRecord.SKIPPED;
+        }
+        if (fields.size() <= Math.max(skuColumn, nameColumn)) {
+            return ProductImportRecord.malformed(line, "CSV inválido: esperadas as colunas sku e name");
+        }
+        return ProductImportRecord.parsed(line, new ProductInputDTO(fields.get(skuColumn), fields.get(nameColumn)));
+    }
+
+    /**
+     * Separa os campos por vírgula; campos entre aspas podem conter vírgulas e aspas duplicadas ({@code ""}).
+     *
+     * @return os campos, ou {@code null} se houver aspas não fechadas
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
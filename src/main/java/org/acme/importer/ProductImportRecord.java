@@ -0,0 +1,30 @@
+package org.acme.importer;
+
+import org.acme.dto.ProductInputDTO;
+
+/**
+ * Linha lida do arquivo: o produto, ou a mensagem de erro se a linha não pôde ser interpretada.
+ */
+final class ProductImportRecord {
+
+    /** Linha sem produto (em branco ou cabeçalho do CSV). */
+    static final ProductImportRecord SKIPPED = new ProductImportRecord(0, null, null);
+
+    final long line;
+    final ProductInputDTO input;
+    final String error;
+
+    private ProductImportRecord(long line, ProductInputDTO input, String error) {
+        this.line = line;
+        this.input = input;
+        this.error = error;
+    }
+
+    static ProductImportRecord parsed(long line, ProductInputDTO input) {
+        return new ProductImportRecord(line, input, null);
+    }
+
+    static ProductImportRecord malformed(long line, String error) {
+        return new ProductImportRecord(line, null, error);
+    }
+}
@@ -0,0 +1,140 @@
+package org.acme.importer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductBatchItemDTO;
+import org.acme.dto.ProductImportProgressDTO;
+import org.acme.dto.ProductInputDTO;
+import org.acme.exception.ProductValidationException;
+import org.acme.service.ProductService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Importa produtos de um fluxo de linhas (NDJSON ou CSV) de tamanho arbitrário.
+ * As linhas são agrupadas em blocos de {@code products.import.chunk-size}, e cada bloco é gravado
+ * pela criação em lote, com uma consulta de duplicidade e uma transação, antes que o próximo
+ * seja lido: a memória usada depende do tamanho do bloco, não do arquivo, e a leitura do corpo
+ * acompanha a velocidade das gravações.
+ * <p>
+ * A rota de importação não tem contexto de requisição do CDI, e portanto nem sessão do Panache:
+ * cada bloco é gravado numa sessão própria, aberta e fechada pela criação em lote.
+ */
+@ApplicationScoped
+public class ProductImporter {
+
+    Logger log = Logger.getLogger(ProductImporter.class);
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "products.import.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    /**
+     * @param lines   linhas do arquivo, sem o separador, lidas conforme a demanda
+     * @param format  formato das linhas
+     * @param context executor do contexto Vert.x da requisição, onde as transações devem ser abertas
+     * @return um andamento por bloco gravado e um andamento final, com {@code done} verdadeiro
+     */
+    public Multi<ProductImportProgressDTO> importProducts(Multi<String> lines, ProductImportFormat format,
+            Executor context) {
+        ProductImportParser parser = new ProductImportParser(format, objectMapper);
+        Totals totals = new Totals();
+        return lines
+                .map(parser::parse)
+                .filter(record -> record != ProductImportRecord.SKIPPED)
+                .group().intoLists().of(chunkSize)
+                .emitOn(context)
+                .onItem().transformToUniAndConcatenate(chunk -> importChunk(chunk, totals))
+                .onCompletion().continueWith(() -> List.of(finish(totals)))
+                .onFailure().recoverWithItem(throwable -> {
+                    log.errorf(throwable, "Importação interrompida após %d linhas: %s", totals.processed,
+                            throwable.getMessage());
+                    return totals.progress(true, String.valueOf(throwable.getMessage()), List.of());
+                });
+    }
+
+    private ProductImportProgressDTO finish(Totals totals) {
+        ProductImportProgressDTO done = totals.progress(true, null, List.of());
+        log.infof("Importação concluída: linhas=%d, criados=%d, conflitos=%d, inválidos=%d, linhas/s=%.0f",
+                done.getProcessed(), done.getCreated(), done.getConflicts(), done.getInvalid(),
+                done.getRowsPerSecond());
+        return done;
+    }
+
+    private Uni<ProductImportProgressDTO> importChunk(List<ProductImportRecord> chunk, Totals totals) {
+        List<ProductBatchItemDTO> failures = new ArrayList<>();
+        List<ProductInputDTO> inputs = new ArrayList<>(chunk.size());
+        List<ProductImportRecord> parsed = new ArrayList<>(chunk.size());
+        for (ProductImportRecord record : chunk) {
+            if (record.input == null) {
+                failures.add(ProductBatchItemDTO.failed(lineIndex(record), null, ProductBatchItemDTO.Status.INVALID,
+                        new ProductValidationException(List.of(record.error))));
+            } else {
+                inputs.add(record.input);
+                parsed.add(record);
+            }
+        }
+        Uni<List<ProductBatchItemDTO>> created = inputs.isEmpty()
+                ? Uni.createFrom().item(List.of())
+                : productService.createAll(inputs).map(output -> output.getItems());
+        return created.map(items -> {
+            for (ProductBatchItemDTO item : items) {
+                if (item.getStatus() == ProductBatchItemDTO.Status.CREATED) {
+                    totals.created++;
+                } else {
+                    if (item.getStatus() == ProductBatchItemDTO.Status.CONFLICT) {
+                        totals.conflicts++;
+                    } else {
+                        totals.invalid++;
+                    }
+                    item.setIndex(lineIndex(parsed.get(item.getIndex())));
+                    failures.add(item);
+                }
+            }
+            failures.sort(Comparator.comparingInt(ProductBatchItemDTO::getIndex));
+            totals.invalid += chunk.size() - inputs.size();
+            totals.processed += chunk.size();
+            return totals.progress(false, null, failures);
+        });
+    }
+
+    private static int lineIndex(ProductImportRecord record) {
+        return (int) Math.min(record.line, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Totais de uma importação; alterados apenas no contexto da requisição, um bloco por vez.
+     */
+    private static final class Totals {
+
+        private final long startNanos = System.nanoTime();
+        long processed;
+        long created;
+        long conflicts;
+        long invalid;
+
+        ProductImportProgressDTO progress(boolean done, String error, List<ProductBatchItemDTO> failures) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            double rowsPerSecond = elapsedNanos == 0 ? 0 : processed * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            return new ProductImportProgressDTO(processed, created, conflicts, invalid,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond, done, error, failures);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package org.acme.index;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.acme.repository.ProductRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Índice de existência de SKUs e nomes de produtos ativos, baseado em filtros de Bloom.
+ * "Talvez presente" exige confirmação no banco. "Ausente" só é definitivo depois que o índice
+ * alcança o banco: produtos criados por outras instâncias chegam pelo Kafka com atraso, então
+ * antes de confiar numa ausência o índice lê as gravações confirmadas desde a última leitura
+ * (ver {@link #absentSkus(Collection)}). O índice é carregado por uma leitura completa no início
+ * e recriado periodicamente, pois exclusões não podem ser removidas de um filtro de Bloom; até
+ * lá, produtos excluídos só aumentam a taxa de falso positivo.
+ */
+@ApplicationScoped
+public class ProductExistenceIndex {
+    Logger log = Logger.getLogger(ProductExistenceIndex.class);
+
+    private static final class Filters {
+        final BloomFilter skus;
+        final BloomFilter names;
+
+        Filters(long expectedInsertions, double fpp) {
+            skus = new BloomFilter(expectedInsertions, fpp);
+            names = new BloomFilter(expectedInsertions, fpp);
+        }
+
+        void add(String sku, String name) {
+            skus.put(sku);
+            names.put(name);
+        }
+    }
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "products.existence-index.expected-insertions", defaultValue = "1000000")
+    long expectedInsertions;
+
+    @ConfigProperty(name = "products.existence-index.fpp", defaultValue = "0.01")
+    double fpp;
+
+    /**
+     * Protege a troca dos filtros: {@link #add(String, String)} grava no atual e no que está em
+     * construção como um passo só, para que nenhuma inserção caia no filtro antigo depois da troca.
+     */
+    private final Object swapLock = new Object();
+    private volatile Filters current;
+    private Filters building;
+    private volatile boolean ready;
+
+    /**
+     * Produtos gravados por transações abaixo deste limite já estão nos filtros; protegido por
+     * {@code swapLock}.
+     */
+    private long horizon;
+
+    /** Leitura de alcance em andamento e quando começou, em {@link System#nanoTime()}. */
+    private final Object catchUpLock = new Object();
+    private Uni<Void> catchUp;
+    private long catchUpStartedNanos;
+    private long caughtUpStartedNanos;
+    private boolean caughtUp;
+
+    private Timer catchUpSuccess;
+    private Timer catchUpFailure;
+    private Counter catchUpProducts;
+    private Timer absenceWait;
+
+    @PostConstruct
+    void init() {
+        current = new Filters(expectedInsertions, fpp);
+        Gauge.builder("products.existence.index.bytes", this, index -> index.current.skus.sizeInBytes()
+                + index.current.names.sizeInBytes())
+                .description("Memória ocupada pelos filtros de existência de produtos")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("products.existence.index.fpp", this, index -> index.current.skus.expectedFpp())
+                .description("Taxa de falso positivo estimada do filtro de existência")
+                .tag("key", "sku")
+                .register(registry);
+        Gauge.builder("products.existence.index.fpp", this, index -> index.current.names.expectedFpp())
+                .description("Taxa de falso positivo estimada do filtro de existência")
+                .tag("key", "name")
+                .register(registry);
+        catchUpSuccess = catchUpTimer("success");
+        catchUpFailure = catchUpTimer("failure");
+        catchUpProducts = Counter.builder("products.existence.index.catchup.products")
+                .description("Produtos lidos pelas leituras de alcance do índice de existência")
+                .register(registry);
+        absenceWait = Timer.builder("products.existence.index.absence.wait")
+                .description("Espera de uma busca pela leitura de alcance antes de confirmar uma ausência")
+                .register(registry);
+    }
+
+    private Timer catchUpTimer(String outcome) {
+        return Timer.builder("products.existence.index.catchup")
+                .description("Duração das leituras de alcance do índice de existência")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        rebuild().subscribe().with(unused -> {
+        }, throwable -> log.errorf("Erro ao carregar o índice de existência de produtos: %s", throwable.getMessage()));
+    }
+
+    @Scheduled(every = "${products.existence-index.rebuild-interval:6h}", delayed = "${products.existence-index.rebuild-interval:6h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> scheduledRebuild() {
+        return rebuild()
+                .onFailure().invoke(throwable -> log.errorf("Erro ao recriar o índice de existência de produtos: %s",
+                        throwable.getMessage()))
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Recria os filtros com uma leitura completa dos produtos ativos. Inserções feitas
+     * durante a leitura vão para os dois conjuntos de filtros, o atual e o novo.
+     */
+    Uni<Void> rebuild() {
+        long expected = Math.max(expectedInsertions, current.skus.insertions() * 3 / 2);
+        Filters next = new Filters(expected, fpp);
+        synchronized (swapLock) {
+            building = next;
+        }
+        long[] scanHorizon = new long[1];
+        // sempre do primário: um produto ausente por atraso da réplica viraria um 404 indevido
+        return productRepository.currentHorizon()
+                .onItem().transformToMulti(limit -> {
+                    scanHorizon[0] = limit;
+                    return productRepository.streamLive(false);
+                })
+                .invoke(product -> next.add(product.sku, product.name))
+                .collect().with(Collectors.counting())
+                .invoke(count -> {
+                    synchronized (swapLock) {
+                        current = next;
+                        building = null;
+                        horizon = Math.max(horizon, scanHorizon[0]);
+                    }
+                    ready = true;
+                    log.infof("Índice de existência de produtos carregado: produtos=%d", count);
+                })
+                .onFailure().invoke(() -> {
+                    synchronized (swapLock) {
+                        building = null;
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * Registra um produto criado ou alterado. Deve ser chamado depois do commit.
+     */
+    public void add(String sku, String name) {
+        synchronized (swapLock) {
+            current.add(sku, name);
+            if (building != null) {
+                building.add(sku, name);
+            }
+        }
+    }
+
+    /**
+     * @return emite {@code true} somente se for certo que não existe produto ativo com o SKU
+     * @see #absentSkus(Collection)
+     */
+    public Uni<Boolean> isSkuAbsent(String sku) {
+        return absentSkus(List.of(sku)).map(absent -> !absent.isEmpty());
+    }
+
+    /**
+     * Separa os SKUs que com certeza não existem. Os descartados pelo filtro só são confirmados
+     * depois de uma leitura das gravações recentes iniciada após esta chamada, compartilhada por
+     * todas as chamadas que chegarem enquanto ela não começa; assim um produto criado por outra
+     * instância, cujo evento ainda não chegou, não vira um 404. Se o índice ainda não foi
+     * carregado ou a leitura falhar, nenhum SKU é dado como ausente e quem chama consulta o banco.
+ * Por isso um 404 custa ao menos uma ida ao banco, dividida entre as buscas simultâneas; a
+ * espera fica em {@code products.existence.index.absence.wait} e as leituras em
+ * {@code products.existence.index.catchup}.
+     *
+     * @param skus SKUs procurados
+     * @return SKUs sem produto ativo
+     */
+    public Uni<Set<String>> absentSkus(Collection<String> skus) {
+        long arrivalNanos = System.nanoTime();
+        List<String> candidates = ready
+                ? skus.stream().filter(sku -> !current.skus.mightContain(sku)).collect(Collectors.toList())
+                : List.of();
+        if (candidates.isEmpty()) {
+            return Uni.createFrom().item(Set.of());
+        }
+        return caughtUpSince(arrivalNanos)
+                .onTermination().invoke(() -> absenceWait.record(System.nanoTime() - arrivalNanos, TimeUnit.NANOSECONDS))
+                .map(ignored -> candidates.stream()
+                        .filter(sku -> !current.skus.mightContain(sku))
+                        .collect(Collectors.<String>toSet()))
+                .onFailure().recoverWithItem(throwable -> {
+                    log.debugf("Índice de existência não alcançou o banco; consultando o banco: %s",
+                            throwable.getMessage());
+                    return Set.of();
+                });
+    }
+
+    /**
+     * Completa quando uma leitura de alcance iniciada depois de {@code arrivalNanos} terminar.
+     * Uma leitura em andamento que começou antes não serve: os chamadores esperam por ela e então
+     * disparam, juntos, a seguinte.
+     */
+    Uni<Void> caughtUpSince(long arrivalNanos) {
+        synchronized (catchUpLock) {
+            if (caughtUp && caughtUpStartedNanos - arrivalNanos >= 0) {
+                return Uni.createFrom().voidItem();
+            }
+            if (catchUp == null) {
+                return startCatchUp();
+            }
+            if (catchUpStartedNanos - arrivalNanos >= 0) {
+                return catchUp;
+            }
+            return catchUp.onItemOrFailure().transformToUni((ignored, failure) -> caughtUpSince(arrivalNanos));
+        }
+    }
+
+    private Uni<Void> startCatchUp() {
+        long startedNanos = System.nanoTime();
+        long since;
+        synchronized (swapLock) {
+            since = horizon;
+        }
+        Uni<Void> run = productRepository.findLiveChangedSince(since)
+                .invoke(changes -> {
+                    catchUpProducts.increment(changes.products.size());
+                    synchronized (swapLock) {
+                        changes.products.forEach(product -> add(product.sku, product.name));
+                        horizon = Math.max(horizon, changes.horizon);
+                    }
+                })
+                .replaceWithVoid()
+                .onTermination().invoke((ignored, failure, cancelled) -> {
+                    (failure == null ? catchUpSuccess : catchUpFailure)
+                            .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+                    synchronized (catchUpLock) {
+                        catchUp = null;
+                        if (failure == null && !cancelled) {
+                            caughtUp = true;
+                            caughtUpStartedNanos = startedNanos;
+                        }
+                    }
+                })
+                .memoize().indefinitely();
+        catchUp = run;
+        catchUpStartedNanos = startedNanos;
+        return run;
+    }
+
+    /**
+     * @return {@code true} se o SKU ou o nome talvez já existam, ou se o índice ainda não foi carregado
+     */
+    public boolean mightExist(String sku, String name) {
+        Filters filters = current;
+        return !ready || filters.skus.mightContain(sku) || filters.names.mightContain(name);
+    }
+}
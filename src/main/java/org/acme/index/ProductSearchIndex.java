@@ -0,0 +1,193 @@
+package org.acme.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.repository.ProductRepository;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Índice em memória de produtos ativos por prefixo de SKU e de nome, sem diferenciar
+ * maiúsculas de minúsculas. As chaves ficam em mapas ordenados, então uma busca percorre
+ * apenas as entradas que começam com o prefixo.
+ * Carregado por uma leitura completa no início e mantido pelas alterações locais e pelos
+ * eventos de produto; alterações fora de ordem do mesmo produto são descartadas pela versão.
+ * Se a carga falhar, é repetida a cada {@code products.search-index.retry-interval}.
+ */
+@ApplicationScoped
+public class ProductSearchIndex {
+    Logger log = Logger.getLogger(ProductSearchIndex.class);
+
+    @Inject
+    ProductRepository productRepository;
+
+    private final ConcurrentSkipListMap<String, ProductOutputDTO> bySku = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, ProductOutputDTO> byName = new ConcurrentSkipListMap<>();
+
+    /**
+     * Exclusões recebidas durante a carga, para que a leitura inicial, feita sobre um
+     * snapshot anterior, não traga de volta um produto já excluído. Esvaziado ao fim de
+     * cada tentativa de carga, com ou sem sucesso.
+     */
+    private final Map<String, ProductOutputDTO> deletedWhileLoading = new ConcurrentHashMap<>();
+    private volatile boolean loading = true;
+    private volatile boolean loaded;
+
+    /**
+     * Carrega o índice, pela réplica de leitura quando disponível; a busca tolera a falta
+     * dos produtos gravados dentro do atraso máximo da réplica.
+     */
+    void onStart(@Observes StartupEvent event) {
+        load().subscribe().with(unused -> {
+        }, throwable -> log.errorf("Erro ao carregar o índice de busca de produtos: %s", throwable.getMessage()));
+    }
+
+    /**
+     * Repete a carga enquanto nenhuma tentativa tiver terminado com sucesso; o índice segue
+     * atendendo com o que já foi lido e com as alterações recebidas desde então.
+     */
+    @Scheduled(every = "${products.search-index.retry-interval:1m}", delayed = "${products.search-index.retry-interval:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> retryLoad() {
+        if (loaded || loading) {
+            return Uni.createFrom().voidItem();
+        }
+        return load()
+                .onFailure().invoke(throwable -> log.errorf("Erro ao recarregar o índice de busca de produtos: %s",
+                        throwable.getMessage()))
+                .onFailure().recoverWithNull();
+    }
+
+    Uni<Void> load() {
+        synchronized (this) {
+            loading = true;
+        }
+        return productRepository.streamLive(true)
+                .map(ProductOutputDTO::fromEntity)
+                .onItem().invoke(this::put)
+                .onItem().ignoreAsUni()
+                .onItemOrFailure().invoke((unused, throwable) -> finishLoad(throwable == null));
+    }
+
+    private synchronized void finishLoad(boolean success) {
+        loading = false;
+        loaded = success;
+        deletedWhileLoading.clear();
+        if (success) {
+            log.infof("Índice de busca de produtos carregado: produtos=%d", bySku.size());
+        }
+    }
+
+    /**
+     * Inclui ou atualiza um produto ativo.
+     */
+    public synchronized void put(ProductOutputDTO product) {
+        String sku = key(product.getSku());
+        if (loading && isNotNewer(product, deletedWhileLoading.get(sku))) {
+            return;
+        }
+        ProductOutputDTO current = bySku.get(sku);
+        if (current != null) {
+            if (isOlder(product, current)) {
+                return;
+            }
+            byName.remove(nameKey(current), current);
+        }
+        bySku.put(sku, product);
+        byName.put(nameKey(product), product);
+    }
+
+    /**
+     * Remove um produto excluído.
+     */
+    public synchronized void remove(ProductOutputDTO product) {
+        String sku = key(product.getSku());
+        if (loading) {
+            deletedWhileLoading.put(sku, product);
+        }
+        ProductOutputDTO current = bySku.get(sku);
+        if (current != null && current.getId().equals(product.getId())) {
+            bySku.remove(sku, current);
+            byName.remove(nameKey(current), current);
+        }
+    }
+
+    /**
+     * Busca produtos cujo SKU ou nome começam com o prefixo.
+     *
+     * @param prefix prefixo procurado
+     * @param limit  quantidade máxima de produtos
+     * @return produtos em ordem alfabética da chave encontrada, sem repetição
+     */
+    public List<ProductOutputDTO> search(String prefix, int limit) {
+        String start = key(prefix);
+        List<Map.Entry<String, ProductOutputDTO>> matches = new ArrayList<>(2 * limit);
+        collect(byName, start, limit, matches);
+        collect(bySku, start, limit, matches);
+        matches.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+
+        Map<String, ProductOutputDTO> products = new LinkedHashMap<>();
+        for (Map.Entry<String, ProductOutputDTO> match : matches) {
+            if (products.size() == limit) {
+                break;
+            }
+            products.putIfAbsent(match.getValue().getSku(), match.getValue());
+        }
+        return new ArrayList<>(products.values());
+    }
+
+    /** Quantidade de produtos indexados. */
+    public int size() {
+        return bySku.size();
+    }
+
+    private static void collect(ConcurrentSkipListMap<String, ProductOutputDTO> index, String prefix, int limit,
+            List<Map.Entry<String, ProductOutputDTO>> matches) {
+        int found = 0;
+        for (Map.Entry<String, ProductOutputDTO> entry : index.tailMap(prefix).entrySet()) {
+            if (found == limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            matches.add(entry);
+            found++;
+        }
+    }
+
+    /** Verdadeiro se {@code product} for o mesmo produto de {@code other} em versão igual ou anterior. */
+    private static boolean isNotNewer(ProductOutputDTO product, ProductOutputDTO other) {
+        return other != null && other.getId().equals(product.getId()) && product.getVersion() != null
+                && other.getVersion() != null && product.getVersion() <= other.getVersion();
+    }
+
+    /** Verdadeiro se {@code product} for o mesmo produto de {@code other} em versão anterior. */
+    private static boolean isOlder(ProductOutputDTO product, ProductOutputDTO other) {
+        return other.getId().equals(product.getId()) && product.getVersion() != null
+                && other.getVersion() != null && product.getVersion() < other.getVersion();
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Chave do nome, seguida do SKU para que nomes que só diferem em maiúsculas e minúsculas
+     * não se sobreponham; o separador ordena antes de qualquer caractere do nome.
+     */
+    private static String nameKey(ProductOutputDTO product) {
+        return key(product.getName()) + '\0' + key(product.getSku());
+    }
+}
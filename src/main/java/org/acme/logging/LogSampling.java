@@ -0,0 +1,44 @@
+package org.acme.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.interceptor.Interceptor;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Instala o {@link SamplingLogFilter} nos loggers das categorias de {@code products.log.sampling.rates}.
+ * <p>
+ * O filtro fica no logger porque, com os handlers assíncronos, o {@code AsyncHandler} copia o
+ * registro na thread que fez o log (formatando a mensagem e copiando o MDC) antes de aplicar o
+ * filtro do handler interno. No logger, o registro descartado não chega a nenhum handler, e o
+ * event loop paga só pela criação do registro.
+ */
+@ApplicationScoped
+public class LogSampling {
+
+    @ConfigProperty(name = "products.log.sampling.rates")
+    Optional<List<String>> rates;
+
+    /** Mantém os loggers, para que o filtro não se perca com um logger coletado. */
+    private final List<Logger> sampled = new ArrayList<>();
+
+    void onStart(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event) {
+        Map<String, Double> parsed = SamplingLogFilter.parse(rates.orElse(List.of()));
+        SamplingLogFilter filter = new SamplingLogFilter(parsed);
+        for (String category : parsed.keySet()) {
+            Logger logger = Logger.getLogger(category);
+            logger.setFilter(filter);
+            sampled.add(logger);
+        }
+    }
+}
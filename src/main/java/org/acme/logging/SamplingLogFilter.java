@@ -0,0 +1,47 @@
+package org.acme.logging;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Filter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Amostra os registros de INFO ou abaixo das categorias configuradas em
+ * {@code products.log.sampling.rates} ({@code categoria:fração}, separadas por vírgula),
+ * para que as linhas por requisição não dominem o custo de log sob carga.
+ * Avisos e erros, e categorias não configuradas, passam sempre.
+ * <p>
+ * Instalado nos loggers das categorias por {@link LogSampling}, e não nos handlers.
+ */
+public final class SamplingLogFilter implements Filter {
+
+    private final Map<String, Double> rates;
+
+    public SamplingLogFilter(Map<String, Double> rates) {
+        this.rates = rates;
+    }
+
+    @Override
+    public boolean isLoggable(LogRecord record) {
+        if (record.getLevel().intValue() > Level.INFO.intValue()) {
+            return true;
+        }
+        Double rate = rates.get(record.getLoggerName());
+        return rate == null || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    public static Map<String, Double> parse(List<String> entries) {
+        Map<String, Double> rates = new HashMap<>();
+        for (String entry : entries) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Amostragem de log inválida, use categoria:fração: " + entry);
+            }
+            rates.put(entry.substring(0, separator).trim(), Double.valueOf(entry.substring(separator + 1).trim()));
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,44 @@
+package org.acme.metrics;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+/**
+ * Publica os timers {@code products.*} como histogramas com os buckets de
+ * {@code products.metrics.slo}, para que as metas de latência possam ser calculadas
+ * a partir das contagens acumuladas, agregadas entre instâncias.
+ */
+@Singleton
+public class ProductMetricsConfiguration {
+
+    @ConfigProperty(name = "products.metrics.slo",
+            defaultValue = "PT0.005S,PT0.01S,PT0.025S,PT0.05S,PT0.1S,PT0.25S,PT0.5S,PT1S,PT2.5S")
+    List<Duration> slo;
+
+    @Produces
+    @Singleton
+    public MeterFilter productTimerBuckets() {
+        double[] buckets = slo.stream().mapToDouble(Duration::toNanos).toArray();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith("products.")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(buckets)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package org.acme.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.exception.ProductException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Mede as etapas do fluxo de produtos com um timer Micrometer e um span OpenTelemetry.
+ * Os timers têm as tags {@code operation} e {@code outcome} (success, failure, cancelled);
+ * os buckets de SLO são configurados em {@link ProductMetricsConfiguration}.
+ * Os spans são filhos do span corrente na assinatura, normalmente o da requisição HTTP.
+ */
+@ApplicationScoped
+public class ProductTelemetry {
+
+    static final String OPERATION_ATTRIBUTE = "products.operation";
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Tracer tracer;
+
+    private final Map<Stage, ConcurrentMap<String, Timers>> timers = new EnumMap<>(Stage.class);
+
+    @PostConstruct
+    void init() {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Mede a operação assíncrona, do momento da assinatura até o item, a falha ou o cancelamento.
+     */
+    public <T> Uni<T> timed(Stage stage, String operation, Supplier<Uni<T>> action) {
+        return Uni.createFrom().deferred(() -> {
+            Measurement measurement = start(stage, operation);
+            try {
+                return action.get()
+                        .onTermination().invoke((item, failure, cancelled) -> measurement.stop(failure, cancelled));
+            } catch (RuntimeException e) {
+                measurement.stop(e, false);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Mede o fluxo inteiro, da assinatura até o último item, a falha ou o cancelamento.
+     */
+    public <T> Multi<T> timedStream(Stage stage, String operation, Supplier<Multi<T>> action) {
+        return Multi.createFrom().deferred(() -> {
+            Measurement measurement = start(stage, operation);
+            try {
+                return action.get()
+                        .onTermination().invoke((failure, cancelled) -> measurement.stop(failure, cancelled));
+            } catch (RuntimeException e) {
+                measurement.stop(e, false);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Mede uma operação síncrona.
+     */
+    public <T> T record(Stage stage, String operation, Supplier<T> action) {
+        Measurement measurement = start(stage, operation);
+        try {
+            T result = action.get();
+            measurement.stop(null, false);
+            return result;
+        } catch (RuntimeException e) {
+            measurement.stop(e, false);
+            throw e;
+        }
+    }
+
+    private Measurement start(Stage stage, String operation) {
+        Timers stageTimers = timers.get(stage).computeIfAbsent(operation, key -> new Timers(registry, stage, key));
+        Span span = tracer.spanBuilder(stage.spanPrefix + "." + operation)
+                .setSpanKind(stage.spanKind)
+                .setAttribute(OPERATION_ATTRIBUTE, operation)
+                .startSpan();
+        return new Measurement(stageTimers, span, System.nanoTime());
+    }
+
+    private static final class Measurement {
+
+        private final Timers timers;
+        private final Span span;
+        private final long startNanos;
+
+        Measurement(Timers timers, Span span, long startNanos) {
+            this.timers = timers;
+            this.span = span;
+            this.startNanos = startNanos;
+        }
+
+        void stop(Throwable failure, boolean cancelled) {
+            long elapsed = System.nanoTime() - startNanos;
+            if (cancelled) {
+                timers.cancelled.record(elapsed, TimeUnit.NANOSECONDS);
+            } else if (failure != null) {
+                timers.failure.record(elapsed, TimeUnit.NANOSECONDS);
+                span.setAttribute("exception.type", failure.getClass().getSimpleName());
+                // erros de domínio são respostas esperadas; só falhas inesperadas marcam o span como erro
+                if (!(failure instanceof ProductException)) {
+                    span.recordException(failure);
+                    span.setStatus(StatusCode.ERROR);
+                }
+            } else {
+                timers.success.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            span.end();
+        }
+    }
+
+    private static final class Timers {
+
+        final Timer success;
+        final Timer failure;
+        final Timer cancelled;
+
+        Timers(MeterRegistry registry, Stage stage, String operation) {
+            success = timer(registry, stage, operation, "success");
+            failure = timer(registry, stage, operation, "failure");
+            cancelled = timer(registry, stage, operation, "cancelled");
+        }
+
+        private static Timer timer(MeterRegistry registry, Stage stage, String operation, String outcome) {
+            return Timer.builder(stage.metricName)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.acme.metrics;
+
+import io.opentelemetry.api.trace.SpanKind;
+
+/**
+ * Etapas instrumentadas do fluxo de produtos, cada uma com seu timer e seu prefixo de span.
+ */
+public enum Stage {
+
+    /** Consulta do repositório, do envio ao último registro lido. */
+    QUERY("products.repository.query", "ProductRepository", SpanKind.CLIENT),
+    /** Transação de escrita, incluindo a gravação do evento no outbox e o commit. */
+    TRANSACTION("products.transaction", "transaction", SpanKind.INTERNAL),
+    /** Envio ao Kafka até a confirmação do broker. */
+    KAFKA_ACK("products.kafka.ack", "kafka.send", SpanKind.PRODUCER),
+    /** Validação dos dados de entrada. */
+    VALIDATION("products.validation", "validation", SpanKind.INTERNAL),
+    /** Requisição completa, da entrada no recurso à resposta. */
+    REQUEST("products.request", "ProductResource", SpanKind.INTERNAL);
+
+    final String metricName;
+    final String spanPrefix;
+    final SpanKind spanKind;
+
+    Stage(String metricName, String spanPrefix, SpanKind spanKind) {
+        this.metricName = metricName;
+        this.spanPrefix = spanPrefix;
+        this.spanKind = spanKind;
+    }
+}
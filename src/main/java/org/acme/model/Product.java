@@ -3,21 +3,38 @@ package org.acme.model;
 import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Version;
 import java.time.LocalDateTime;
 
-import io.quarkus.hibernate.reactive.panache.PanacheEntity;
+import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
 
 @Entity
 @Cacheable
-public class Product extends PanacheEntity {
+public class Product extends PanacheEntityBase {
 
-    @Column(length = 12, unique = true, nullable = false)
+    /**
+     * Identificadores reservados em blocos para que inserções em lote não
+     * precisem de um {@code nextval} por produto.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_seq")
+    @SequenceGenerator(name = "product_id_seq", sequenceName = "hibernate_sequence", allocationSize = 50)
+    public Long id;
+
+    /**
+     * SKU e nome são únicos apenas entre produtos ativos, por índices parciais declarados
+     * em {@code db/product-schema.sql}, para que um produto excluído possa ser recriado.
+     */
+    @Column(length = 12, nullable = false, updatable = false)
     public String sku;
 
-    @Column(length = 40, unique = true, nullable = false)
+    @Column(length = 40, nullable = false)
     public String name;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -32,6 +49,23 @@ public class Product extends PanacheEntity {
     @Version
     public Long version;
 
+    /**
+     * Posição da última alteração no feed de mudanças, preenchida por trigger a cada
+     * inserção ou alteração (ver {@code db/product-schema.sql}); nunca é gravada pela aplicação.
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    public Long changeSeq;
+
+    /**
+     * Transação que gravou a última alteração ({@code pg_current_xact_id()}), preenchida pelo
+     * mesmo trigger. O feed de mudanças ordena por ela para não pular transações longas.
+     */
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    public Long changeXid;
+
+    @Column(name = "changed_at", insertable = false, updatable = false)
+    public LocalDateTime changedAt;
+
     public Product() {
     }
 
@@ -0,0 +1,18 @@
+package org.acme.model;
+
+/**
+ * Tipos de evento de produto publicados no tópico de produtos.
+ */
+public enum ProductEventType {
+    PRODUCT_CREATED,
+    PRODUCT_UPDATED,
+    PRODUCT_DELETED,
+    /**
+     * Estado atual de um produto, republicado por um snapshot do catálogo. Pode ser publicado
+     * depois de uma alteração mais recente do mesmo produto: consumidores devem manter a maior
+     * {@code version}.
+     */
+    PRODUCT_SNAPSHOT,
+    /** Marcador de fim de snapshot, publicado em todas as partições depois do último produto. */
+    SNAPSHOT_COMPLETED
+}
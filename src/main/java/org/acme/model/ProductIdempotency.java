@@ -0,0 +1,50 @@
+package org.acme.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
+
+/**
+ * Resposta guardada de uma criação de produto com {@code Idempotency-Key}, para que repetições
+ * da requisição, em qualquer instância, recebam a mesma resposta.
+ */
+@Entity
+@Table(name = "product_idempotency")
+public class ProductIdempotency extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    public String key;
+
+    @Column(columnDefinition = "text", nullable = false)
+    public String fingerprint;
+
+    @Column(nullable = false)
+    public int status;
+
+    @Column(columnDefinition = "text", nullable = false)
+    public String body;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    public LocalDateTime createdAt;
+
+    public ProductIdempotency() {
+    }
+
+    public ProductIdempotency(String key, String fingerprint, int status, String body) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.body = body;
+    }
+
+    @PrePersist
+    void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
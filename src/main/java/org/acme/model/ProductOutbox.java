@@ -0,0 +1,89 @@
+package org.acme.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
+
+/**
+ * Evento de produto pendente de publicação, gravado na mesma transação da alteração
+ * do produto e removido pelo relay depois da confirmação do Kafka. Enquanto o envio está em
+ * andamento, o evento fica reservado até {@code leaseUntil}; eventos que falham repetidamente
+ * ficam em quarentena ({@code quarantinedAt}) e deixam de ser enviados.
+ */
+@Entity
+@Table(name = "product_outbox")
+public class ProductOutbox extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_outbox_id_seq")
+    @SequenceGenerator(name = "product_outbox_id_seq", sequenceName = "product_outbox_id_seq", allocationSize = 50)
+    public Long id;
+
+    @Column(length = 12, nullable = false)
+    public String sku;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 30, nullable = false)
+    public ProductEventType eventType;
+
+    @Column(columnDefinition = "text", nullable = false)
+    public String payload;
+
+    /**
+     * Ordem de publicação, atribuída pelo banco na inserção (ver {@code db/product-schema.sql}). Ao contrário
+     * do id, reservado em blocos por instância, cresce na ordem em que as alterações de um mesmo
+     * produto foram gravadas, pois cada uma só insere o evento depois de bloquear o produto.
+     */
+    @Column(name = "seq", insertable = false, updatable = false)
+    public Long seq;
+
+    @Column(name = "lease_until")
+    public LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    public int attempts;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    public String lastError;
+
+    @Column(name = "quarantined_at")
+    public LocalDateTime quarantinedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    public LocalDateTime createdAt;
+
+    public ProductOutbox() {
+    }
+
+    public ProductOutbox(String sku, ProductEventType eventType, String payload) {
+        this.sku = sku;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "id=" + id +
+                ",sku='" + sku + '\'' +
+                ",eventType=" + eventType +
+                ",attempts=" + attempts +
+                ",createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -1,37 +1,126 @@
 package org.acme.producer;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.acme.dto.ProductOutputDTO;
+import org.acme.metrics.ProductTelemetry;
+import org.acme.metrics.Stage;
+import org.acme.model.ProductEventType;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Channel;
-import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.jboss.logging.Logger;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaProducer;
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
 @ApplicationScoped
 public class ProductOutProducer {
+    public static final String EVENT_TYPE_HEADER = "event-type";
+    public static final String SNAPSHOT_ID_HEADER = "snapshot-id";
+    public static final String SNAPSHOT_COUNT_HEADER = "snapshot-count";
+    /** Chave dos marcadores de fim de snapshot; a compactação mantém apenas o último. */
+    public static final String SNAPSHOT_MARKER_KEY = "__snapshot__";
+
+    private static final String CHANNEL = "products-out";
+    private static final int ANY_PARTITION = -1;
+
     Logger log = Logger.getLogger(ProductOutProducer.class);
 
     @Inject
-    @Channel("products-out")
-    Emitter<ProductOutputDTO> emitter;
+    @Channel(CHANNEL)
+    MutinyEmitter<ProductOutputDTO> emitter;
+
+    @Inject
+    KafkaClientService kafkaClientService;
+
+    @Inject
+    ProductTelemetry telemetry;
+
+    @ConfigProperty(name = "mp.messaging.outgoing.products-out.topic", defaultValue = CHANNEL)
+    String topic;
 
-    public Uni<Void> send(ProductOutputDTO payload) {
+    /**
+     * Publica o evento e completa somente quando o Kafka confirmar o recebimento.
+     * O SKU é a chave do registro, garantindo ordem por produto e permitindo compactação do tópico.
+     *
+     * @param eventType tipo do evento, enviado no cabeçalho {@value #EVENT_TYPE_HEADER}
+     * @param payload   produto alterado
+     */
+    public Uni<Void> send(ProductEventType eventType, ProductOutputDTO payload) {
+        return send(eventType, payload, ANY_PARTITION, headers -> {
+        });
+    }
+
+    /**
+     * Publica o estado atual do produto como parte do snapshot {@code snapshotId}.
+     */
+    public Uni<Void> sendSnapshot(String snapshotId, ProductOutputDTO payload) {
+        return send(ProductEventType.PRODUCT_SNAPSHOT, payload, ANY_PARTITION,
+                headers -> headers.add(SNAPSHOT_ID_HEADER, snapshotId.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Publica o marcador de fim do snapshot em cada partição do tópico, com a chave
+     * {@value #SNAPSHOT_MARKER_KEY} e a quantidade de produtos publicados no cabeçalho
+     * {@value #SNAPSHOT_COUNT_HEADER}. Como a ordem só é garantida dentro da partição, um
+     * consumidor tem o snapshot completo quando tiver lido o marcador de todas as partições.
+     * Deve ser chamado depois da confirmação de todos os produtos do snapshot.
+     */
+    public Uni<Void> sendSnapshotCompleted(String snapshotId, long count) {
+        ProductOutputDTO marker = new ProductOutputDTO(null, SNAPSHOT_MARKER_KEY, null, null, null, null);
+        return partitions()
+                .onItem().transformToMulti(partitions -> Multi.createFrom().iterable(partitions))
+                .onItem().transformToUniAndMerge(partition -> send(ProductEventType.SNAPSHOT_COMPLETED, marker,
+                        partition, headers -> {
+                            headers.add(SNAPSHOT_ID_HEADER, snapshotId.getBytes(StandardCharsets.UTF_8));
+                            headers.add(SNAPSHOT_COUNT_HEADER, Long.toString(count).getBytes(StandardCharsets.UTF_8));
+                        }))
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> send(ProductEventType eventType, ProductOutputDTO payload, int partition,
+            Consumer<RecordHeaders> extraHeaders) {
         return Uni.createFrom().item(() -> {
+            RecordHeaders headers = new RecordHeaders();
+            headers.add(EVENT_TYPE_HEADER, eventType.name().getBytes(StandardCharsets.UTF_8));
+            extraHeaders.accept(headers);
             return Message.of(payload)
                     .addMetadata(
-                            OutgoingKafkaRecordMetadata.builder()
-                                    .withHeaders(new RecordHeaders())
+                            OutgoingKafkaRecordMetadata.<String>builder()
+                                    .withKey(payload.getSku())
+                                    .withPartition(partition)
+                                    .withHeaders(headers)
                                     .build());
         })
-                .invoke(message -> emitter.send(message))
-                .invoke(() -> log.infof("Enviando produto: %s", payload))
-                .replaceWithVoid()
+                .invoke(() -> log.debugf("Enviando produto: sku=%s, tipo=%s", payload.getSku(), eventType))
+                .chain(message -> telemetry.timed(Stage.KAFKA_ACK, eventType.name(),
+                        () -> emitter.sendMessage(message)))
                 .onFailure().invoke(throwable -> log.errorf("Erro ao enviar produto: %s", throwable.getMessage()));
     }
-}
\ No newline at end of file
+
+    /**
+     * Partições do tópico; sem o produtor Kafka (outro conector), uma partição qualquer.
+     */
+    private Uni<List<Integer>> partitions() {
+        KafkaProducer<String, ProductOutputDTO> producer = kafkaClientService.getProducer(CHANNEL);
+        if (producer == null) {
+            return Uni.createFrom().item(List.of(ANY_PARTITION));
+        }
+        return producer.partitionsFor(topic)
+                .map(partitions -> partitions.stream().map(PartitionInfo::partition).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,165 @@
+package org.acme.producer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.model.ProductOutbox;
+import org.acme.repository.ProductOutboxRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Publica no Kafka os eventos gravados na tabela de outbox, em três passos curtos:
+ * reserva um lote de eventos, envia todos fora de qualquer transação e, depois das
+ * confirmações, remove os enviados. Um evento cujo envio não foi confirmado volta a ser
+ * enviado depois que a reserva expira (entrega pelo menos uma vez).
+ * <p>
+ * Falhas são tratadas evento a evento: um evento com conteúdo inválido vai direto para a
+ * quarentena, e um que falha enquanto outros do mesmo lote são confirmados conta uma tentativa,
+ * indo para a quarentena em {@code products.outbox.relay.max-attempts}. Se nenhum evento do lote
+ * for confirmado, o problema é do broker: o lote é devolvido sem contar tentativas.
+ * <p>
+ * A ordem por produto vale mesmo com várias instâncias do relay, porque a reserva só entrega o
+ * evento mais antigo de cada SKU (ver {@link ProductOutboxRepository#claimNextBatch(int, Duration)}).
+ */
+@ApplicationScoped
+public class ProductOutboxRelay {
+    Logger log = Logger.getLogger(ProductOutboxRelay.class);
+
+    @Inject
+    ProductOutboxRepository outboxRepository;
+
+    @Inject
+    ProductOutProducer productOutProducer;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "products.outbox.relay.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @ConfigProperty(name = "products.outbox.relay.lease", defaultValue = "PT2M")
+    Duration lease;
+
+    @ConfigProperty(name = "products.outbox.relay.retry-backoff", defaultValue = "PT5S")
+    Duration retryBackoff;
+
+    @ConfigProperty(name = "products.outbox.relay.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    /** Resultado do envio de um evento. */
+    private static final class Outcome {
+        final ProductOutbox event;
+        final Throwable failure;
+        final boolean permanent;
+
+        Outcome(ProductOutbox event, Throwable failure, boolean permanent) {
+            this.event = event;
+            this.failure = failure;
+            this.permanent = permanent;
+        }
+    }
+
+    @Scheduled(every = "${products.outbox.relay.interval:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> relay() {
+        return relayBatch()
+                .flatMap(sent -> sent == batchSize ? relay() : Uni.createFrom().voidItem())
+                .onFailure().invoke(throwable -> log.errorf("Erro ao publicar eventos da outbox: %s",
+                        throwable.getMessage()))
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * @return quantidade de eventos confirmados pelo Kafka
+     */
+    Uni<Integer> relayBatch() {
+        return outboxRepository.claimNextBatch(batchSize, lease)
+                .flatMap(events -> {
+                    if (events.isEmpty()) {
+                        return Uni.createFrom().item(0);
+                    }
+                    List<Uni<Outcome>> sends = events.stream()
+                            .map(this::send)
+                            .collect(Collectors.toList());
+                    return Uni.join().all(sends).andCollectFailures()
+                            .flatMap(this::complete);
+                });
+    }
+
+    private Uni<Outcome> send(ProductOutbox event) {
+        ProductOutputDTO payload;
+        try {
+            payload = toPayload(event);
+        } catch (RuntimeException e) {
+            return Uni.createFrom().item(new Outcome(event, e, true));
+        }
+        return productOutProducer.send(event.eventType, payload)
+                .map(ignored -> new Outcome(event, null, false))
+                .onFailure().recoverWithItem(failure -> new Outcome(event, failure, false));
+    }
+
+    private Uni<Integer> complete(List<Outcome> outcomes) {
+        List<Long> sent = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+        List<Uni<Void>> updates = new ArrayList<>();
+        // sem nenhuma confirmação no lote, a falha é do broker e não conta como tentativa do evento
+        boolean brokerAvailable = outcomes.stream().anyMatch(outcome -> outcome.failure == null);
+        for (Outcome outcome : outcomes) {
+            if (outcome.failure == null) {
+                sent.add(outcome.event.id);
+            } else if (outcome.permanent || brokerAvailable) {
+                updates.add(recordFailure(outcome));
+            } else {
+                released.add(outcome.event.id);
+            }
+        }
+        if (!sent.isEmpty()) {
+            updates.add(outboxRepository.deleteByIds(sent)
+                    .invoke(() -> log.infof("Eventos publicados da outbox: quantidade=%d", sent.size())));
+        }
+        if (!released.isEmpty()) {
+            updates.add(outboxRepository.release(released)
+                    .invoke(() -> log.warnf("Kafka indisponível; eventos da outbox devolvidos: quantidade=%d",
+                            released.size())));
+        }
+        return Uni.join().all(updates).andCollectFailures()
+                .replaceWith(sent.size());
+    }
+
+    private Uni<Void> recordFailure(Outcome outcome) {
+        ProductOutbox event = outcome.event;
+        boolean quarantined = outcome.permanent || event.attempts + 1 >= maxAttempts;
+        if (quarantined) {
+            log.errorf(outcome.failure, "Evento da outbox em quarentena: id=%d, sku=%s, tentativas=%d",
+                    event.id, event.sku, event.attempts + 1);
+        } else {
+            log.warnf("Falha ao publicar evento da outbox: id=%d, sku=%s, tentativa=%d, erro=%s",
+                    event.id, event.sku, event.attempts + 1, outcome.failure.getMessage());
+        }
+        return outboxRepository.recordFailure(event.id, String.valueOf(outcome.failure.getMessage()),
+                outcome.permanent, retryBackoff, maxAttempts);
+    }
+
+    private ProductOutputDTO toPayload(ProductOutbox event) {
+        if (event.eventType == null) {
+            throw new IllegalStateException("Tipo de evento inválido na outbox: id=" + event.id);
+        }
+        try {
+            return objectMapper.readValue(event.payload, ProductOutputDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento inválido na outbox: id=" + event.id, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.acme.repository;
+
+import java.time.LocalDateTime;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Uni;
+import org.acme.model.ProductIdempotency;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+@ApplicationScoped
+public class ProductIdempotencyRepository implements PanacheRepositoryBase<ProductIdempotency, String> {
+
+    @Inject
+    Mutiny.SessionFactory sessionFactory;
+
+    /**
+     * Busca numa sessão própria, e não na da requisição: depois de uma criação recusada pelo
+     * banco, a sessão da requisição não pode mais ser usada.
+     *
+     * @return a resposta guardada para a chave depois de {@code since}, ou {@code null}
+     */
+    public Uni<ProductIdempotency> findSince(String key, LocalDateTime since) {
+        return sessionFactory.withSession(session -> session
+                .createQuery("from ProductIdempotency where key = ?1 and createdAt > ?2", ProductIdempotency.class)
+                .setParameter(1, key)
+                .setParameter(2, since)
+                .getSingleResultOrNull());
+    }
+
+    /**
+     * Grava a resposta numa sessão e numa transação próprias, pelo mesmo motivo de
+     * {@link #findSince(String, LocalDateTime)}.
+     */
+    public Uni<Void> insert(ProductIdempotency entity) {
+        return sessionFactory.withTransaction(session -> session.persist(entity));
+    }
+
+    public Uni<Long> deleteBefore(LocalDateTime cutoff) {
+        return delete("createdAt < ?1", cutoff);
+    }
+}
@@ -0,0 +1,96 @@
+package org.acme.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.quarkus.hibernate.reactive.panache.PanacheRepository;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import org.acme.model.ProductEventType;
+import org.acme.model.ProductOutbox;
+
+@ApplicationScoped
+public class ProductOutboxRepository implements PanacheRepository<ProductOutbox> {
+
+    @Inject
+    PgPool client;
+
+    /**
+     * Reserva os próximos eventos pendentes por {@code lease}, em um único comando e portanto
+     * numa transação curta: nenhum bloqueio nem conexão fica preso durante o envio ao Kafka.
+     * Só é reservado o evento mais antigo de cada SKU, e apenas se nenhum evento anterior do
+     * mesmo SKU estiver reservado, de modo que, mesmo com várias instâncias do relay, os eventos
+     * de um produto são publicados um de cada vez e na ordem em que foram gravados. Eventos em
+     * quarentena não seguram os seguintes.
+     *
+     * @return eventos reservados, em ordem de gravação
+     */
+    public Uni<List<ProductOutbox>> claimNextBatch(int size, Duration lease) {
+        return client.preparedQuery("UPDATE product_outbox SET lease_until = now() + make_interval(secs => $2)"
+                + " WHERE id IN (SELECT o.id FROM product_outbox o"
+                + " WHERE o.quarantined_at IS NULL AND (o.lease_until IS NULL OR o.lease_until < now())"
+                + " AND NOT EXISTS (SELECT 1 FROM product_outbox p"
+                + " WHERE p.sku = o.sku AND p.seq < o.seq AND p.quarantined_at IS NULL)"
+                + " ORDER BY o.seq LIMIT $1 FOR UPDATE SKIP LOCKED)"
+                + " RETURNING id, sku, event_type, payload, seq, attempts")
+                .execute(Tuple.of(size, lease.toMillis() / 1000.0))
+                .map(rows -> {
+                    List<ProductOutbox> events = new ArrayList<>(rows.size());
+                    rows.forEach(row -> events.add(fromRow(row)));
+                    events.sort((a, b) -> Long.compare(a.seq, b.seq));
+                    return events;
+                });
+    }
+
+    public Uni<Void> deleteByIds(Collection<Long> ids) {
+        return client.preparedQuery("DELETE FROM product_outbox WHERE id = ANY($1)")
+                .execute(Tuple.of(ids.toArray(new Long[0])))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Devolve os eventos para o próximo ciclo sem contar tentativa, quando a falha não é deles.
+     */
+    public Uni<Void> release(Collection<Long> ids) {
+        return client.preparedQuery("UPDATE product_outbox SET lease_until = NULL WHERE id = ANY($1)")
+                .execute(Tuple.of(ids.toArray(new Long[0])))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Registra uma falha de envio do evento: o evento só volta a ser reservado depois de
+     * {@code retryAfter}, e vai para a quarentena se a falha for permanente ou se atingir
+     * {@code maxAttempts} tentativas.
+     */
+    public Uni<Void> recordFailure(long id, String error, boolean permanent, Duration retryAfter, int maxAttempts) {
+        return client.preparedQuery("UPDATE product_outbox SET attempts = attempts + 1, last_error = $2,"
+                + " lease_until = now() + make_interval(secs => $3),"
+                + " quarantined_at = CASE WHEN $4 OR attempts + 1 >= $5 THEN now() END WHERE id = $1")
+                .execute(Tuple.of(id, error, retryAfter.toMillis() / 1000.0, permanent, maxAttempts))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Um tipo desconhecido vira {@code null}, para que o relay ponha só este evento em quarentena.
+     */
+    static ProductOutbox fromRow(Row row) {
+        ProductEventType eventType;
+        try {
+            eventType = ProductEventType.valueOf(row.getString("event_type"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            eventType = null;
+        }
+        ProductOutbox event = new ProductOutbox(row.getString("sku"), eventType, row.getString("payload"));
+        event.id = row.getLong("id");
+        event.seq = row.getLong("seq");
+        event.attempts = row.getInteger("attempts");
+        return event;
+    }
+}
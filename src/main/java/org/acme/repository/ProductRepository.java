@@ -1,23 +1,265 @@
 package org.acme.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.reactive.mutiny.Mutiny;
 
 import io.quarkus.hibernate.reactive.panache.PanacheRepository;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Transaction;
+import io.vertx.mutiny.sqlclient.Tuple;
+import org.acme.dto.ProductChangeCursor;
+import org.acme.dto.ProductVersionDTO;
+import org.acme.metrics.ProductTelemetry;
+import org.acme.metrics.Stage;
 import org.acme.model.Product;
 
 @ApplicationScoped
 public class ProductRepository implements PanacheRepository<Product> {
 
+    static final String COLUMNS = "id, sku, name, created_at, updated_at, deleted_at, version, change_xid, change_seq";
+
+    @Inject
+    PgPool client;
+
+    @Inject
+    ProductTelemetry telemetry;
+
+    @Inject
+    ReadReplicaRouter router;
+
+    @ConfigProperty(name = "products.stream.fetch-size", defaultValue = "100")
+    int fetchSize;
+
     public Uni<Product> findBySkuOrName(String sku, String name) {
-        return find("(sku = ?1 or name = ?2) and deletedAt is null", sku, name).firstResult();
+        return telemetry.timed(Stage.QUERY, "findBySkuOrName",
+                () -> find("(sku = ?1 or name = ?2) and deletedAt is null", sku, name).firstResult());
+    }
+
+    /**
+     * Busca os produtos ativos com algum dos SKUs ou nomes na sessão informada, e não na sessão
+     * da requisição, para que cada bloco da criação em lote use uma sessão própria.
+     */
+    public Uni<List<Product>> findBySkusOrNames(Mutiny.Session session, Collection<String> skus,
+            Collection<String> names) {
+        return telemetry.timed(Stage.QUERY, "findBySkusOrNames", () -> session
+                .createQuery("from Product where (sku in ?1 or name in ?2) and deletedAt is null", Product.class)
+                .setParameter(1, skus)
+                .setParameter(2, names)
+                .getResultList());
+    }
+
+    /**
+     * Busca produtos ativos pelos SKUs, na réplica de leitura quando disponível.
+     * Os produtos não ficam associados à sessão e não devem ser alterados.
+     */
+    public Uni<List<Product>> findBySkus(Collection<String> skus) {
+        return telemetry.timed(Stage.QUERY, "findBySkus", () -> router.forSkus(skus)
+                .preparedQuery("SELECT " + COLUMNS + " FROM product WHERE sku = ANY($1) AND deleted_at IS NULL")
+                .execute(Tuple.of(skus.toArray(new String[0])))
+                .map(ProductRepository::toList));
     }
 
     public Uni<Product> findBySku(String sku) {
-        return find("sku = ?1 and deletedAt is null", sku).firstResult();
+        return telemetry.timed(Stage.QUERY, "findBySku",
+                () -> find("sku = ?1 and deletedAt is null", sku).firstResult());
+    }
+
+    /**
+     * Busca o produto ativo pelo SKU, na réplica de leitura quando disponível e o SKU não
+     * tiver sido gravado recentemente. Para alterar o produto, use {@link #findBySku(String)}.
+     *
+     * @return o produto, ou {@code null} se não existir produto ativo com o SKU
+     */
+    public Uni<Product> readBySku(String sku) {
+        return telemetry.timed(Stage.QUERY, "readBySku", () -> router.forSku(sku)
+                .preparedQuery("SELECT " + COLUMNS + " FROM product WHERE sku = $1 AND deleted_at IS NULL")
+                .execute(Tuple.of(sku))
+                .map(rows -> {
+                    RowIterator<Row> iterator = rows.iterator();
+                    return iterator.hasNext() ? fromRow(iterator.next()) : null;
+                }));
     }
 
     public Uni<Product> findByName(String name) {
-        return find("name = ?1 and deletedAt is null", name).firstResult();
+        return telemetry.timed(Stage.QUERY, "findByName",
+                () -> find("name = ?1 and deletedAt is null", name).firstResult());
+    }
+
+    /**
+     * Busca somente id e versão do produto ativo, sem carregar a entidade, na réplica de
+     * leitura quando disponível e o SKU não tiver sido gravado recentemente.
+     *
+     * @param sku SKU do produto
+     * @return id e versão, ou {@code null} se não existir produto ativo com o SKU
+     */
+    public Uni<ProductVersionDTO> findVersionBySku(String sku) {
+        return telemetry.timed(Stage.QUERY, "findVersionBySku", () -> router.forSku(sku)
+                .preparedQuery("SELECT id, version FROM product WHERE sku = $1 AND deleted_at IS NULL")
+                .execute(Tuple.of(sku))
+                .map(rows -> {
+                    RowIterator<Row> iterator = rows.iterator();
+                    if (!iterator.hasNext()) {
+                        return null;
+                    }
+                    Row row = iterator.next();
+                    return new ProductVersionDTO(row.getLong("id"), row.getLong("version"));
+                }));
+    }
+
+    /**
+     * Lê uma página de produtos ativos com paginação por chave ({@code id > cursor}),
+     * emitindo cada produto conforme as linhas chegam do banco. Usa a réplica de leitura
+     * quando disponível.
+     *
+     * @param cursor último id já lido (0 para a primeira página)
+     * @param limit  quantidade máxima de produtos
+     * @return produtos ordenados por id
+     */
+    public Multi<Product> streamAfter(long cursor, int limit) {
+        return telemetry.timedStream(Stage.QUERY, "streamAfter", () -> stream(router.forRange(),
+                "SELECT " + COLUMNS + " FROM product WHERE id > $1 AND deleted_at IS NULL ORDER BY id LIMIT $2",
+                Tuple.of(cursor, limit)));
+    }
+
+    /**
+     * Lê as alterações de produtos, incluindo excluídos, posteriores à posição informada do feed,
+     * em ordem de transação e, dentro dela, de alteração. Só são retornadas alterações de
+     * transações anteriores à mais antiga ainda em andamento ({@code pg_snapshot_xmin}): toda
+     * transação que ainda vier a ser confirmada tem identificador maior que esse limite, e portanto
+     * posição maior que qualquer uma já entregue, por mais que demore.
+     *
+     * @param since última posição já lida
+     * @param limit quantidade máxima de alterações
+     * @return produtos ordenados pela posição da última alteração
+     */
+    public Uni<List<Product>> findChangesAfter(ProductChangeCursor since, int limit) {
+        return telemetry.timed(Stage.QUERY, "findChangesAfter", () -> client
+                .preparedQuery("SELECT " + COLUMNS + " FROM product WHERE (change_xid, change_seq) > ($1, $2)"
+                        + " AND change_xid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint"
+                        + " ORDER BY change_xid, change_seq LIMIT $3")
+                .execute(Tuple.of(since.getXid(), since.getSeq(), limit))
+                .map(ProductRepository::toList));
+    }
+
+    /**
+     * Limite abaixo do qual todas as transações já terminaram ({@code pg_snapshot_xmin}), no
+     * primário: toda transação ainda por confirmar tem identificador igual ou maior.
+     */
+    public Uni<Long> currentHorizon() {
+        return telemetry.timed(Stage.QUERY, "currentHorizon", () -> client
+                .query("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS horizon")
+                .execute()
+                .map(rows -> rows.iterator().next().getLong("horizon")));
+    }
+
+    /**
+     * Lê, no primário, SKU e nome dos produtos ativos gravados por transações a partir de
+     * {@code horizon}, junto com o novo limite, ambos do mesmo instante. Alterações confirmadas
+     * acima do novo limite são lidas de novo na chamada seguinte.
+     *
+     * @param horizon limite retornado pela leitura anterior ou por {@link #currentHorizon()}
+     */
+    public Uni<LiveChanges> findLiveChangedSince(long horizon) {
+        return telemetry.timed(Stage.QUERY, "findLiveChangedSince", () -> client
+                .preparedQuery("WITH snapshot AS (SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS horizon)"
+                        + " SELECT snapshot.horizon, product.sku, product.name FROM snapshot LEFT JOIN product"
+                        + " ON product.change_xid >= $1 AND product.deleted_at IS NULL")
+                .execute(Tuple.of(horizon))
+                .map(rows -> {
+                    List<Product> products = new ArrayList<>();
+                    long next = horizon;
+                    for (Row row : rows) {
+                        next = row.getLong("horizon");
+                        if (row.getString("sku") != null) {
+                            products.add(new Product(row.getString("sku"), row.getString("name")));
+                        }
+                    }
+                    return new LiveChanges(next, products);
+                }));
+    }
+
+    /**
+     * Produtos ativos alterados desde um limite de transações, e o limite seguinte.
+     */
+    public static final class LiveChanges {
+        public final long horizon;
+        public final List<Product> products;
+
+        public LiveChanges(long horizon, List<Product> products) {
+            this.horizon = horizon;
+            this.products = products;
+        }
+    }
+
+    /**
+     * Lê todos os produtos ativos, sem ordem definida, usando o mesmo cursor no servidor.
+     * Usado para carregar índices em memória.
+     *
+     * @param replicaAllowed se a leitura pode ir à réplica; use {@code false} quando um produto
+     *                       ausente por atraso da réplica levaria a respostas erradas
+     */
+    public Multi<Product> streamLive(boolean replicaAllowed) {
+        return telemetry.timedStream(Stage.QUERY, "streamLive", () -> stream(
+                replicaAllowed ? router.forRange() : client,
+                "SELECT " + COLUMNS + " FROM product WHERE deleted_at IS NULL", Tuple.tuple()));
+    }
+
+    /**
+     * Executa a consulta com um cursor no servidor, lendo {@code products.stream.fetch-size}
+     * linhas por vez, para que o consumo de memória não dependa do tamanho do resultado.
+     * O cursor exige uma transação, encerrada com a leitura antes de devolver a conexão.
+     */
+    Multi<Product> stream(PgPool pool, String sql, Tuple params) {
+        return Multi.createFrom().resourceFromUni(() -> pool.getConnection()
+                        .flatMap(connection -> connection.begin()
+                                .onFailure().call(connection::close)
+                                .map(transaction -> new CursorTransaction(connection, transaction))),
+                cursor -> cursor.connection.prepare(sql)
+                        .onItem().transformToMulti(statement -> statement.createStream(fetchSize, params).toMulti()))
+                .withFinalizer(cursor -> cursor.transaction.commit().eventually(cursor.connection::close),
+                        (cursor, failure) -> cursor.transaction.rollback().eventually(cursor.connection::close),
+                        cursor -> cursor.transaction.rollback().eventually(cursor.connection::close))
+                .map(ProductRepository::fromRow);
+    }
+
+    private static final class CursorTransaction {
+        final SqlConnection connection;
+        final Transaction transaction;
+
+        CursorTransaction(SqlConnection connection, Transaction transaction) {
+            this.connection = connection;
+            this.transaction = transaction;
+        }
+    }
+
+    static List<Product> toList(RowSet<Row> rows) {
+        List<Product> products = new ArrayList<>(rows.size());
+        rows.forEach(row -> products.add(fromRow(row)));
+        return products;
+    }
+
+    static Product fromRow(Row row) {
+        Product product = new Product(row.getString("sku"), row.getString("name"));
+        product.id = row.getLong("id");
+        product.createdAt = row.getLocalDateTime("created_at");
+        product.updatedAt = row.getLocalDateTime("updated_at");
+        product.deletedAt = row.getLocalDateTime("deleted_at");
+        product.version = row.getLong("version");
+        product.changeXid = row.getLong("change_xid");
+        product.changeSeq = row.getLong("change_seq");
+        return product;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+package org.acme.repository;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.interceptor.Interceptor;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.reactive.datasource.ReactiveDataSource;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+
+/**
+ * Escolhe o pool das consultas somente leitura: a réplica ({@code quarkus.datasource."replica"})
+ * quando habilitada e com atraso conhecido e dentro de {@code products.replica.max-lag},
+ * ou o primário caso contrário.
+ * SKUs gravados há menos de {@code products.replica.read-your-writes-window}, por esta instância
+ * ou por outra (via eventos do Kafka), são lidos do primário, para que quem acabou de gravar
+ * veja a própria alteração.
+ */
+@ApplicationScoped
+public class ReadReplicaRouter {
+
+    static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END::float8 AS lag";
+
+    Logger log = Logger.getLogger(ReadReplicaRouter.class);
+
+    @Inject
+    PgPool primary;
+
+    @Inject
+    @ReactiveDataSource("replica")
+    PgPool replica;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "products.replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "products.replica.max-lag", defaultValue = "PT5S")
+    Duration maxLag;
+
+    @ConfigProperty(name = "products.replica.read-your-writes-window", defaultValue = "PT10S")
+    Duration readYourWritesWindow;
+
+    @ConfigProperty(name = "products.replica.recent-writes.maximum-size", defaultValue = "100000")
+    long recentWritesMaximumSize;
+
+    private Cache<String, Boolean> recentWrites;
+
+    /** Atraso da réplica em segundos; {@code NaN} enquanto desconhecido ou se a réplica estiver indisponível. */
+    private volatile double lagSeconds = Double.NaN;
+
+    private Counter replicaReads;
+    private Counter primaryReads;
+
+    @PostConstruct
+    void init() {
+        recentWrites = Caffeine.newBuilder()
+                .maximumSize(recentWritesMaximumSize)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        Gauge.builder("products.replica.lag", this, router -> router.lagSeconds)
+                .description("Atraso da réplica de leitura em segundos (NaN se indisponível)")
+                .baseUnit("seconds")
+                .register(registry);
+        replicaReads = readCounter("replica");
+        primaryReads = readCounter("primary");
+    }
+
+    private Counter readCounter(String target) {
+        return Counter.builder("products.replica.reads")
+                .description("Consultas somente leitura por destino")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    /**
+     * Mede o atraso antes dos demais observadores de inicialização, para que a carga dos
+     * índices em memória já possa usar a réplica.
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION) StartupEvent event) {
+        if (enabled) {
+            // sem resposta a tempo, a réplica segue como indisponível até a próxima verificação
+            checkLag().ifNoItem().after(maxLag).recoverWithItem((Void) null).await().indefinitely();
+        }
+    }
+
+    @Scheduled(every = "${products.replica.lag-check-interval:5s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> scheduledLagCheck() {
+        return enabled ? checkLag() : Uni.createFrom().voidItem();
+    }
+
+    Uni<Void> checkLag() {
+        return replica.query(LAG_SQL).execute()
+                .map(rows -> rows.iterator().next().getDouble("lag"))
+                .invoke(this::updateLag)
+                .onFailure().recoverWithItem(throwable -> {
+                    log.warnf("Réplica indisponível, leituras no primário: %s", throwable.getMessage());
+                    updateLag(Double.NaN);
+                    return null;
+                })
+                .replaceWithVoid();
+    }
+
+    void updateLag(double seconds) {
+        if (seconds > maxLag.toMillis() / 1000.0) {
+            log.warnf("Réplica atrasada, leituras no primário: atraso=%.1fs", seconds);
+        }
+        lagSeconds = seconds;
+    }
+
+    /**
+     * Registra a gravação do SKU; até o fim da janela, leituras dele vão ao primário.
+     */
+    public void markWritten(String sku) {
+        if (enabled) {
+            recentWrites.put(sku, Boolean.TRUE);
+        }
+    }
+
+    /** Pool para ler um produto pelo SKU. */
+    public PgPool forSku(String sku) {
+        return route(replicaAvailable() && recentWrites.getIfPresent(sku) == null);
+    }
+
+    /** Pool para ler vários produtos; qualquer SKU gravado recentemente leva a consulta ao primário. */
+    public PgPool forSkus(Collection<String> skus) {
+        if (!replicaAvailable()) {
+            return route(false);
+        }
+        for (String sku : skus) {
+            if (recentWrites.getIfPresent(sku) != null) {
+                return route(false);
+            }
+        }
+        return route(true);
+    }
+
+    /**
+     * Pool para leituras por faixa (listagem, carga de índices), que aceitam o atraso
+     * da réplica limitado por {@code products.replica.max-lag}.
+     */
+    public PgPool forRange() {
+        return route(replicaAvailable());
+    }
+
+    boolean replicaAvailable() {
+        // NaN (desconhecido) também falha a comparação
+        return enabled && lagSeconds <= maxLag.toMillis() / 1000.0;
+    }
+
+    private PgPool route(boolean useReplica) {
+        if (useReplica) {
+            replicaReads.increment();
+            return replica;
+        }
+        primaryReads.increment();
+        return primary;
+    }
+}
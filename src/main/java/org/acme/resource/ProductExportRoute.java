@@ -0,0 +1,95 @@
+package org.acme.resource;
+
+import java.util.List;
+import java.util.Objects;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductErrorDTO;
+import org.acme.exporter.ProductExporter;
+import org.acme.metrics.ProductTelemetry;
+import org.acme.metrics.Stage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.http.HttpServerResponse;
+import io.vertx.mutiny.ext.web.Router;
+import io.vertx.mutiny.ext.web.RoutingContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rota de exportação do catálogo: {@code GET /products/export}, em NDJSON compactado com gzip.
+ * <p>
+ * Registrada direto no router do Vert.x, como a importação, para escrever os bytes do gzip sem
+ * a serialização do RESTEasy. Cada pedaço só é pedido ao exportador depois que o anterior foi
+ * escrito na conexão, então um cliente lento segura a leitura do banco em vez de acumular memória.
+ */
+@Slf4j
+@ApplicationScoped
+public class ProductExportRoute {
+
+    static final String PATH = "/products/export";
+
+    @Inject
+    ProductExporter exporter;
+
+    @Inject
+    ProductTelemetry telemetry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /** Ordem negativa para ser atendida antes do RESTEasy, que trataria "export" como SKU. */
+    void register(@Observes Router router) {
+        router.get(PATH).order(-1).handler(this::handle);
+    }
+
+    void handle(RoutingContext routingContext) {
+        HttpServerResponse response = routingContext.response()
+                .setChunked(true)
+                .putHeader("Content-Type", ProductImportRoute.NDJSON)
+                .putHeader("Content-Encoding", "gzip");
+        log.info("Exportação de produtos iniciada");
+        Cancellable subscription = telemetry.timedStream(Stage.REQUEST, "export", exporter::exportNdjsonGzip)
+                .onItem().call(chunk -> response.write(Buffer.buffer(chunk)))
+                .subscribe().with(
+                        chunk -> {
+                        },
+                        failure -> {
+                            log.error("Exportação de produtos interrompida", failure);
+                            fail(response, failure);
+                        },
+                        response::endAndForget);
+        response.closeHandler(subscription::cancel);
+    }
+
+    /**
+     * Antes do primeiro pedaço, responde 500 com o erro; depois, o status já foi enviado e a
+     * conexão é derrubada, para que o cliente veja um gzip truncado em vez de um arquivo
+     * aparentemente completo.
+     */
+    private void fail(HttpServerResponse response, Throwable failure) {
+        if (response.headWritten()) {
+            response.reset();
+            return;
+        }
+        response.setStatusCode(500)
+                .putHeader("Content-Type", "application/json");
+        response.headers().remove("Content-Encoding");
+        response.endAndForget(toJson(new ProductErrorDTO("Erro ao exportar produtos", "INTERNAL_SERVER_ERROR",
+                List.of(Objects.toString(failure.getMessage(), failure.getClass().getName())))));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
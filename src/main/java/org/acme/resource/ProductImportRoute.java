@@ -0,0 +1,112 @@
+package org.acme.resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductErrorDTO;
+import org.acme.importer.ProductImportFormat;
+import org.acme.importer.ProductImporter;
+import org.acme.metrics.ProductTelemetry;
+import org.acme.metrics.Stage;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.mutiny.core.http.HttpServerRequest;
+import io.vertx.mutiny.core.http.HttpServerResponse;
+import io.vertx.mutiny.core.parsetools.RecordParser;
+import io.vertx.mutiny.ext.web.Router;
+import io.vertx.mutiny.ext.web.RoutingContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rota de importação de produtos: {@code POST /products/import}.
+ * <p>
+ * Registrada direto no router do Vert.x, e não no recurso REST, para ler o corpo como fluxo:
+ * o corpo é dividido em linhas à medida que chega e só é lido quando o bloco anterior foi
+ * gravado, sem ser carregado inteiro em memória. A resposta é NDJSON, com uma linha de
+ * andamento por bloco e uma linha final.
+ */
+@Slf4j
+@ApplicationScoped
+public class ProductImportRoute {
+
+    static final String PATH = "/products/import";
+    static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    ProductImporter importer;
+
+    @Inject
+    ProductTelemetry telemetry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "products.import.max-line-length", defaultValue = "65536")
+    int maxLineLength;
+
+    /** Ordem negativa para ser atendida antes do RESTEasy, que trataria "import" como SKU. */
+    void register(@Observes Router router) {
+        router.post(PATH).order(-1).handler(this::handle);
+    }
+
+    void handle(RoutingContext routingContext) {
+        HttpServerRequest request = routingContext.request();
+        HttpServerResponse response = routingContext.response();
+        ProductImportFormat format = ProductImportFormat.fromContentType(request.getHeader("Content-Type"));
+        if (format == null) {
+            response.setStatusCode(415)
+                    .putHeader("Content-Type", "application/json")
+                    .endAndForget(toJson(new ProductErrorDTO("Formato de importação não suportado",
+                            "UNSUPPORTED_MEDIA_TYPE", List.of("Use " + NDJSON + " ou text/csv"))));
+            return;
+        }
+
+        if ("100-continue".equalsIgnoreCase(request.getHeader("Expect"))) {
+            response.writeContinue();
+        }
+        Context context = Vertx.currentContext();
+        Multi<String> lines = RecordParser.newDelimited("\n", request)
+                .maxRecordSize(maxLineLength)
+                .toMulti()
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8));
+
+        response.setChunked(true).putHeader("Content-Type", NDJSON);
+        log.info("Importação de produtos iniciada: formato={}", format);
+        Cancellable subscription = telemetry.timedStream(Stage.REQUEST, "import",
+                () -> importer.importProducts(lines, format, command -> context.runOnContext(ignored -> command.run())))
+                .subscribe().with(
+                        progress -> {
+                            if (!response.closed()) {
+                                response.writeAndForget(toJson(progress) + "\n");
+                            }
+                        },
+                        failure -> endIfOpen(response),
+                        () -> endIfOpen(response));
+        response.closeHandler(() -> subscription.cancel());
+    }
+
+    private static void endIfOpen(HttpServerResponse response) {
+        if (!response.closed() && !response.ended()) {
+            response.endAndForget();
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
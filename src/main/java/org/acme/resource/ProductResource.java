@@ -1,35 +1,63 @@
 package org.acme.resource;
 
 import java.net.URI;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import javax.validation.ConstraintViolation;
-import javax.validation.Validator;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.PATCH;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
 import javax.ws.rs.core.Response;
 
+import org.acme.exception.ProductException;
 import org.acme.exception.ProductValidationException;
+import org.acme.dto.ProductBatchOutputDTO;
+import org.acme.dto.ProductBulkOutputDTO;
+import org.acme.dto.ProductChangesOutputDTO;
 import org.acme.dto.ProductErrorDTO;
+import org.acme.dto.ProductEventDTO;
 import org.acme.dto.ProductInputDTO;
 import org.acme.dto.ProductOutputDTO;
+import org.acme.dto.ProductPatchDTO;
+import org.acme.dto.ProductSnapshotDTO;
+import org.acme.dto.ProductVersionDTO;
+import org.acme.exporter.ProductExporter;
+import org.acme.idempotency.IdempotencyStore;
+import org.acme.idempotency.IdempotentResponse;
+import org.acme.metrics.ProductTelemetry;
+import org.acme.metrics.Stage;
 import org.acme.service.ProductService;
+import org.acme.stream.OverflowPolicy;
+import org.acme.stream.ProductEventBroadcaster;
+import org.acme.validation.ProductInputValidator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
-import org.jboss.logging.MDC;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import lombok.extern.slf4j.Slf4j;
 
@@ -46,58 +74,433 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductResource {
 
     @Inject
-    Validator validator;
+    ProductInputValidator validator;
 
     @Inject
     ProductService productService;
 
+    @Inject
+    ProductTelemetry telemetry;
+
+    @Inject
+    ProductEventBroadcaster productEventBroadcaster;
+
+    @Inject
+    ProductExporter productExporter;
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @ConfigProperty(name = "products.sse.heartbeat", defaultValue = "PT15S")
+    Duration sseHeartbeat;
+
+    @ConfigProperty(name = "products.sse.overflow", defaultValue = "LATEST")
+    OverflowPolicy sseOverflow;
+
     /**
      * Cria um novo produto.
+     * Com {@code Idempotency-Key}, a primeira resposta da chave (o produto criado ou o erro)
+     * é guardada e repetida para requisições seguintes com a mesma chave, que não criam
+     * o produto de novo; requisições simultâneas com a chave aguardam a original.
      * 
-     * @param input Dados do produto a ser criado
+     * @param product        Dados do produto a ser criado
+     * @param idempotencyKey Chave opcional que identifica as repetições da requisição
      * @return Produto criado
      */
     @POST
-    @Operation(summary = "Cria um novo produto", description = "Cria um novo produto com os dados fornecidos")
+    @Operation(summary = "Cria um novo produto", description = "Cria um novo produto com os dados fornecidos. Repetições com o mesmo Idempotency-Key recebem a resposta original")
     @APIResponses({
             @APIResponse(responseCode = "201", description = "Produto criado com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
-            @APIResponse(responseCode = "400", description = "Dados do produto inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "400", description = "Dados do produto inválidos ou Idempotency-Key reutilizada com outro conteúdo", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
             @APIResponse(responseCode = "409", description = "SKU já existe ou nome já existe", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
             @APIResponse(responseCode = "500", description = "Erro interno do servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
     })
-    public Uni<Response> createProduct(ProductInputDTO product) {
-        log.info(String.format("Recebida requisição para criar produto: sku=%s, nome=%s", product.getSku(), product.getName()));
-        Set<ConstraintViolation<ProductInputDTO>> violations = validator.validate(product);
-        if (violations.isEmpty()) {
+    public Uni<Response> createProduct(ProductInputDTO product,
+            @HeaderParam(IdempotencyStore.HEADER) String idempotencyKey) {
+        log.info("Recebida requisição para criar produto: sku={}, nome={}", product.getSku(), product.getName());
+        return telemetry.timed(Stage.REQUEST, "create", () -> {
+            if (idempotencyKey == null) {
+                return create(product).onItem().transform(ProductResource::created);
+            }
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyStore.MAX_KEY_LENGTH) {
+                return Uni.createFrom().failure(new ProductValidationException(List.of(
+                        "Idempotency-Key deve ter entre 1 e " + IdempotencyStore.MAX_KEY_LENGTH + " caracteres")));
+            }
+            String fingerprint = IdempotencyStore.fingerprint(product);
+            return idempotencyStore.execute(idempotencyKey, fingerprint, () -> create(product)
+                            .onItem().transform(created -> IdempotentResponse.created(fingerprint, created))
+                            .onFailure(ProductException.class)
+                            .recoverWithItem(e -> IdempotentResponse.failed(fingerprint, (ProductException) e)))
+                    .onItem().transform(ProductResource::toResponse);
+        });
+    }
+
+    private Uni<ProductOutputDTO> create(ProductInputDTO product) {
+        List<String> errors = telemetry.record(Stage.VALIDATION, "create", () -> validator.validate(product));
+        if (errors.isEmpty()) {
             return productService.create(product)
-                .onItem().transform(i -> {
-                    log.info(String.format("Produto criado com sucesso: sku=%s, nome=%s", i.getSku(), i.getName()));
-                    return Response.created(
-                        URI.create("/products/" + i.getSku()))
-                        .entity(i).build();
-                });
+                    .invoke(i -> log.info("Produto criado com sucesso: sku={}, nome={}", i.getSku(), i.getName()));
+        }
+        log.warn("Falha de validação ao criar produto: {}", errors);
+        return Uni.createFrom().failure(new ProductValidationException(errors));
+    }
+
+    private static Response created(ProductOutputDTO product) {
+        return Response.created(URI.create("/products/" + product.getSku())).entity(product).build();
+    }
+
+    /**
+     * Monta a resposta guardada; repetições levam o cabeçalho {@code Idempotent-Replayed}.
+     */
+    private static Response toResponse(IdempotentResponse stored) {
+        Response.ResponseBuilder response = stored.getProduct() != null
+                ? Response.created(URI.create("/products/" + stored.getProduct().getSku()))
+                : Response.status(stored.getStatus());
+        if (stored.isReplayed()) {
+            response.header("Idempotent-Replayed", "true");
         }
-        log.warn(String.format("Falha de validação ao criar produto: %s", violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(", "))));
-            return Uni.createFrom().failure(new ProductValidationException(violations.stream()
-                    .map(ConstraintViolation::getMessage)
-                    .collect(Collectors.toList())));
-        
+        return response.entity(stored.getEntity()).build();
+    }
+
+    /**
+     * Cria vários produtos em uma única requisição.
+     *
+     * @param products Dados dos produtos a serem criados
+     * @return Resultado por item (criado, conflito ou inválido)
+     */
+    @POST
+    @Path("batch")
+    @Operation(summary = "Cria produtos em lote", description = "Valida e cria vários produtos, retornando o resultado de cada item")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Lote processado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductBatchOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "500", description = "Erro interno do servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> createProductsBatch(List<ProductInputDTO> products) {
+        log.info("Recebida requisição para criar produtos em lote: itens={}", products == null ? 0 : products.size());
+        return productService.createBatch(products)
+                .onItem().transform(result -> {
+                    log.info("Lote de produtos processado: criados={}, conflitos={}, inválidos={}",
+                            result.getCreated(), result.getConflicts(), result.getInvalid());
+                    return Response.ok(result).build();
+                });
     }
 
+    /**
+     * Obtém um produto por SKU, com a ETag da sua versão atual.
+     * Se {@code If-None-Match} corresponder à versão atual, responde 304 sem montar o produto.
+     *
+     * @param sku         SKU do produto
+     * @param ifNoneMatch ETags já conhecidas pelo cliente
+     * @param request     requisição, usada para avaliar as pré-condições
+     * @return Produto encontrado ou 304
+     */
     @GET
     @Path("{sku}")
     @Operation(summary = "Obtém um produto por SKU", description = "Obtém um produto por SKU")
     @APIResponses({
             @APIResponse(responseCode = "200", description = "Produto encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductOutputDTO.class))),
+            @APIResponse(responseCode = "304", description = "Produto não modificado desde a ETag informada"),
             @APIResponse(responseCode = "404", description = "Produto não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
     })
-    public Uni<Response> getProductBySku(@PathParam("sku") String sku) {
-        String traceId = MDC.get("X-Trace-Id") != null ? MDC.get("X-Trace-Id").toString() : "N/A";
-        log.info(String.format("Recebida requisição para buscar produto por SKU: %s", traceId, sku));
-        return productService.getBySku(sku)
-                .onItem().transform(i -> {
-                    log.info(String.format("Produto encontrado: sku=%s, nome=%s", traceId, i.getSku(), i.getName()));
-                    return Response.ok(i).build();
+    public Uni<Response> getProductBySku(@PathParam("sku") String sku,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch, @Context Request request) {
+        log.info("Recebida requisição para buscar produto por SKU: {}", sku);
+        return telemetry.timed(Stage.REQUEST, "get", () -> {
+            Uni<Response> notModified = ifNoneMatch == null
+                    ? Uni.createFrom().nullItem()
+                    : productService.getVersionBySku(sku)
+                            .map(version -> {
+                                EntityTag tag = entityTag(version.getId(), version.getVersion());
+                                Response.ResponseBuilder builder = request.evaluatePreconditions(tag);
+                                return builder == null ? null : builder.tag(tag).build();
+                            });
+            return notModified.onItem().ifNull().switchTo(() -> productService.getBySku(sku)
+                    .onItem().transform(i -> {
+                        log.info("Produto encontrado: sku={}, nome={}", i.getSku(), i.getName());
+                        return Response.ok(i).tag(entityTag(i.getId(), i.getVersion())).build();
+                    }));
+        });
+    }
+
+    /**
+     * Substitui os dados de um produto. O SKU do corpo deve ser o mesmo do caminho.
+     *
+     * @param sku     SKU do produto
+     * @param ifMatch ETags aceitas; se ausente, a alteração não depende da versão
+     * @param product Novos dados do produto
+     * @return Produto alterado, com a nova ETag
+     */
+    @PUT
+    @Path("{sku}")
+    @Operation(summary = "Altera um produto", description = "Substitui os dados do produto; com If-Match, só altera se o produto estiver na versão informada")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Produto alterado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Dados do produto inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "404", description = "Produto não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "409", description = "Nome já existe", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "412", description = "Produto não está na versão informada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> updateProduct(@PathParam("sku") String sku, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            ProductInputDTO product) {
+        log.info("Recebida requisição para alterar produto: sku={}", sku);
+        List<String> errors = telemetry.record(Stage.VALIDATION, "update", () -> validator.validate(product));
+        if (errors.isEmpty() && !sku.equals(product.getSku())) {
+            errors = List.of("SKU não pode ser alterado");
+        }
+        if (!errors.isEmpty()) {
+            log.warn("Falha de validação ao alterar produto: {}", String.join(", ", errors));
+            return Uni.createFrom().failure(new ProductValidationException(errors));
+        }
+        return productService.update(sku, product.getName(), expectedVersions(ifMatch))
+                .onItem().transform(ProductResource::withETag);
+    }
+
+    /**
+     * Altera parcialmente um produto; campos ausentes são mantidos.
+     *
+     * @param sku     SKU do produto
+     * @param ifMatch ETags aceitas; se ausente, a alteração não depende da versão
+     * @param patch   Campos a alterar
+     * @return Produto alterado, com a nova ETag
+     */
+    @PATCH
+    @Path("{sku}")
+    @Operation(summary = "Altera parte de um produto", description = "Altera os campos informados; com If-Match, só altera se o produto estiver na versão informada")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Produto alterado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Dados do produto inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "404", description = "Produto não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "409", description = "Nome já existe", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "412", description = "Produto não está na versão informada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> patchProduct(@PathParam("sku") String sku, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            ProductPatchDTO patch) {
+        log.info("Recebida requisição para alterar parte do produto: sku={}", sku);
+        List<String> errors = telemetry.record(Stage.VALIDATION, "patch", () -> validator.validate(patch));
+        if (!errors.isEmpty()) {
+            return Uni.createFrom().failure(new ProductValidationException(errors));
+        }
+        return productService.update(sku, patch.getName(), expectedVersions(ifMatch))
+                .onItem().transform(ProductResource::withETag);
+    }
+
+    /**
+     * Exclui logicamente um produto.
+     *
+     * @param sku     SKU do produto
+     * @param ifMatch ETags aceitas; se ausente, a exclusão não depende da versão
+     * @return Resposta sem conteúdo
+     */
+    @DELETE
+    @Path("{sku}")
+    @Operation(summary = "Exclui um produto", description = "Exclui logicamente o produto; o SKU e o nome podem ser usados por um novo produto")
+    @APIResponses({
+            @APIResponse(responseCode = "204", description = "Produto excluído"),
+            @APIResponse(responseCode = "404", description = "Produto não encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class))),
+            @APIResponse(responseCode = "412", description = "Produto não está na versão informada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> deleteProduct(@PathParam("sku") String sku, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        log.info("Recebida requisição para excluir produto: sku={}", sku);
+        return productService.delete(sku, expectedVersions(ifMatch))
+                .onItem().transform(unused -> Response.noContent().build());
+    }
+
+    private static Response withETag(ProductOutputDTO product) {
+        log.info("Produto alterado com sucesso: sku={}, nome={}", product.getSku(), product.getName());
+        return Response.ok(product).tag(entityTag(product.getId(), product.getVersion())).build();
+    }
+
+    /**
+     * Converte o cabeçalho If-Match nas versões aceitas. ETags fracas ou que não seguem o
+     * formato de {@link #entityTag(Long, Long)} nunca correspondem, como exige a comparação forte.
+     *
+     * @return versões aceitas, ou {@code null} se o cabeçalho estiver ausente ou for {@code *}
+     */
+    static List<ProductVersionDTO> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<ProductVersionDTO> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String[] parts = tag.substring(1, tag.length() - 1).split("-");
+            try {
+                if (parts.length == 2) {
+                    versions.add(new ProductVersionDTO(Long.valueOf(parts[0]), Long.valueOf(parts[1])));
+                }
+            } catch (NumberFormatException e) {
+                // não corresponde a nenhuma versão
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * ETag forte do produto: muda a cada alteração, pois a versão é incrementada pelo bloqueio otimista.
+     */
+    static EntityTag entityTag(Long id, Long version) {
+        return new EntityTag(id + "-" + version);
+    }
+
+    @GET
+    @Operation(summary = "Obtém vários produtos por SKU", description = "Obtém os produtos dos SKUs informados em uma única consulta, separando os SKUs inexistentes")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Produtos encontrados e SKUs inexistentes", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductBulkOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Nenhum SKU informado ou limite excedido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> getProductsBySkus(@QueryParam("sku") List<String> skus) {
+        log.info("Recebida requisição para buscar produtos por SKU: quantidade={}", skus == null ? 0 : skus.size());
+        return productService.getBySkus(skus)
+                .onItem().transform(result -> {
+                    log.info("Produtos encontrados: encontrados={}, inexistentes={}",
+                            result.getFound().size(), result.getMissing().size());
+                    return Response.ok(result).build();
                 });
     }
+
+    /**
+     * Inicia a republicação de todos os produtos ativos no tópico de produtos, para que novos
+     * consumidores obtenham o estado atual do catálogo. Cada produto é publicado como
+     * {@code PRODUCT_SNAPSHOT}, com o SKU como chave, e o fim é marcado por {@code SNAPSHOT_COMPLETED}
+     * em todas as partições. A publicação segue em segundo plano.
+     *
+     * @return Andamento do snapshot iniciado
+     */
+    @POST
+    @Path("export/snapshot")
+    @Operation(summary = "Publica snapshot do catálogo", description = "Republica todos os produtos ativos no tópico de produtos, seguido de um marcador de fim")
+    @APIResponses({
+            @APIResponse(responseCode = "202", description = "Snapshot iniciado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductSnapshotDTO.class))),
+            @APIResponse(responseCode = "409", description = "Já existe um snapshot em andamento", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> startSnapshot() {
+        log.info("Recebida requisição para publicar snapshot de produtos");
+        return Uni.createFrom().item(productExporter::startSnapshot)
+                .onItem().transform(snapshot -> Response.accepted(snapshot).build());
+    }
+
+    /**
+     * Consulta o andamento do último snapshot publicado por esta instância.
+     *
+     * @return Andamento do snapshot, ou 204 se nenhum foi iniciado
+     */
+    @GET
+    @Path("export/snapshot")
+    @Operation(summary = "Consulta o snapshot do catálogo", description = "Andamento do último snapshot iniciado nesta instância")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Andamento do snapshot", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductSnapshotDTO.class))),
+            @APIResponse(responseCode = "204", description = "Nenhum snapshot iniciado")
+    })
+    public Uni<Response> getSnapshot() {
+        ProductSnapshotDTO snapshot = productExporter.snapshotStatus();
+        return Uni.createFrom().item(snapshot == null ? Response.noContent().build() : Response.ok(snapshot).build());
+    }
+
+    /**
+     * Lista produtos com paginação por chave.
+     * A página é escrita na resposta conforme os produtos chegam do banco; para obter a
+     * próxima página, envie o id do último produto recebido em {@code after}.
+     *
+     * @param after último id já lido
+     * @param limit tamanho da página
+     * @return Produtos ordenados por id
+     */
+    @GET
+    @Path("page")
+    @Operation(summary = "Lista produtos", description = "Lista produtos ativos ordenados por id, a partir do cursor informado")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Página de produtos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Cursor ou limite inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Multi<ProductOutputDTO> listProducts(@QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        log.info("Recebida requisição para listar produtos: after={}, limit={}", after, limit);
+        return productService.list(after, limit);
+    }
+
+    /**
+     * Busca produtos pelo início do SKU ou do nome, para autocompletar.
+     * Atendida pelo índice em memória, sem consulta ao banco.
+     *
+     * @param prefix início do SKU ou do nome
+     * @param limit  quantidade máxima de produtos
+     * @return Produtos encontrados
+     */
+    @GET
+    @Path("search")
+    @Operation(summary = "Busca produtos por prefixo", description = "Busca produtos ativos cujo SKU ou nome começam com o prefixo, sem diferenciar maiúsculas de minúsculas")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Produtos encontrados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Prefixo ou limite inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> searchProducts(@QueryParam("prefix") String prefix,
+            @QueryParam("limit") @DefaultValue("10") int limit) {
+        return productService.search(prefix, limit)
+                .onItem().transform(products -> Response.ok(products).build());
+    }
+
+    /**
+     * Lê o feed de mudanças de produtos.
+     * Para acompanhar o catálogo, chame repetidamente enviando em {@code since} o
+     * {@code next} da resposta anterior.
+     *
+     * @param since última posição já lida
+     * @param limit tamanho máximo da página
+     * @return Alterações e cursor da próxima página
+     */
+    @GET
+    @Path("changes")
+    @Operation(summary = "Lista mudanças de produtos", description = "Lista produtos criados, alterados ou excluídos depois do cursor informado, em ordem de alteração")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Página de mudanças", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductChangesOutputDTO.class))),
+            @APIResponse(responseCode = "400", description = "Cursor ou limite inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Uni<Response> listProductChanges(@QueryParam("since") @DefaultValue("0") String since,
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        log.info("Recebida requisição para listar mudanças de produtos: since={}, limit={}", since, limit);
+        return productService.changes(since, limit)
+                .onItem().transform(result -> Response.ok(result).build());
+    }
+
+    /**
+     * Envia, por Server-Sent Events, as alterações de produtos a partir da conexão.
+     * Cada evento tem como nome o tipo da alteração e como dado o produto. Comentários
+     * periódicos mantêm a conexão aberta através de proxies.
+     *
+     * @param overflow o que fazer quando o cliente não acompanhar: {@code drop} descarta
+     *                 os eventos novos, {@code latest} descarta os mais antigos
+     * @param sse      fábrica de eventos SSE
+     * @return Eventos até o cliente desconectar
+     */
+    @GET
+    @Path("stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Acompanha alterações de produtos", description = "Stream SSE com os produtos criados, alterados ou excluídos a partir da conexão")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Stream de alterações", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = ProductEventDTO.class))),
+            @APIResponse(responseCode = "400", description = "Política de descarte inválida", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductErrorDTO.class)))
+    })
+    public Multi<OutboundSseEvent> streamProducts(@QueryParam("overflow") String overflow, @Context Sse sse) {
+        log.info("Recebida requisição para acompanhar produtos: overflow={}", overflow);
+        OverflowPolicy policy;
+        try {
+            policy = overflow == null ? sseOverflow : OverflowPolicy.valueOf(overflow.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Multi.createFrom().failure(new ProductValidationException(List.of("Política de descarte deve ser 'drop' ou 'latest'")));
+        }
+        Multi<OutboundSseEvent> events = productEventBroadcaster.subscribe(policy)
+                .map(event -> sse.newEventBuilder()
+                        .name(event.getType().name())
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(ProductOutputDTO.class, event.getProduct())
+                        .build());
+        Multi<OutboundSseEvent> heartbeats = Multi.createFrom().ticks().every(sseHeartbeat)
+                .onOverflow().drop()
+                .map(tick -> sse.newEventBuilder().comment("heartbeat").build());
+        return Multi.createBy().merging().streams(events, heartbeats);
+    }
 }
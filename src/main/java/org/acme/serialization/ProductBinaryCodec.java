@@ -0,0 +1,159 @@
+package org.acme.serialization;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.acme.dto.ProductOutputDTO;
+
+/**
+ * Codificação binária compacta de {@link ProductOutputDTO} para o tópico de produtos.
+ *
+ * <pre>
+ * magic (1) | versão (1) | flags (1) | id (8)? | sku (varint + UTF-8) | nome (varint + UTF-8)
+ *           | createdAt (8 + 4)? | updatedAt (8 + 4)? | version (8)?
+ * </pre>
+ *
+ * Os campos marcados com {@code ?} só existem quando o bit correspondente está ligado em
+ * {@code flags}; campos novos entram no fim, com um bit novo, e são ignorados por leitores
+ * antigos. SKU e nome nulos são gravados vazios, com um bit próprio em {@code flags}, para
+ * que leitores antigos continuem encontrando os dois campos. O primeiro byte nunca coincide
+ * com o início de um JSON, o que permite que consumidores aceitem os dois formatos no mesmo
+ * tópico.
+ */
+public final class ProductBinaryCodec {
+
+    public static final byte MAGIC = (byte) 0xB1;
+    public static final byte VERSION = 1;
+    public static final String CONTENT_TYPE = "application/vnd.acme.product.v1+binary";
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_CREATED_AT = 1 << 1;
+    private static final int HAS_UPDATED_AT = 1 << 2;
+    private static final int HAS_VERSION = 1 << 3;
+    private static final int NULL_SKU = 1 << 4;
+    private static final int NULL_NAME = 1 << 5;
+
+    private ProductBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(ProductOutputDTO product) {
+        byte[] sku = utf8(product.getSku());
+        byte[] name = utf8(product.getName());
+        int flags = (product.getId() != null ? HAS_ID : 0)
+                | (product.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+                | (product.getUpdatedAt() != null ? HAS_UPDATED_AT : 0)
+                | (product.getVersion() != null ? HAS_VERSION : 0)
+                | (product.getSku() == null ? NULL_SKU : 0)
+                | (product.getName() == null ? NULL_NAME : 0);
+
+        int size = 3
+                + ((flags & HAS_ID) != 0 ? Long.BYTES : 0)
+                + varintSize(sku.length) + sku.length
+                + varintSize(name.length) + name.length
+                + ((flags & HAS_CREATED_AT) != 0 ? Long.BYTES + Integer.BYTES : 0)
+                + ((flags & HAS_UPDATED_AT) != 0 ? Long.BYTES + Integer.BYTES : 0)
+                + ((flags & HAS_VERSION) != 0 ? Long.BYTES : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC).put(VERSION).put((byte) flags);
+        if ((flags & HAS_ID) != 0) {
+            buffer.putLong(product.getId());
+        }
+        putBytes(buffer, sku);
+        putBytes(buffer, name);
+        if ((flags & HAS_CREATED_AT) != 0) {
+            putDateTime(buffer, product.getCreatedAt());
+        }
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            putDateTime(buffer, product.getUpdatedAt());
+        }
+        if ((flags & HAS_VERSION) != 0) {
+            buffer.putLong(product.getVersion());
+        }
+        return buffer.array();
+    }
+
+    public static ProductOutputDTO decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != MAGIC) {
+            throw new IllegalArgumentException("Conteúdo não está no formato binário de produto");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versão do formato binário de produto não suportada: " + version);
+        }
+        int flags = buffer.get();
+        ProductOutputDTO product = new ProductOutputDTO();
+        if ((flags & HAS_ID) != 0) {
+            product.setId(buffer.getLong());
+        }
+        String sku = getString(buffer);
+        String name = getString(buffer);
+        product.setSku((flags & NULL_SKU) != 0 ? null : sku);
+        product.setName((flags & NULL_NAME) != 0 ? null : name);
+        if ((flags & HAS_CREATED_AT) != 0) {
+            product.setCreatedAt(getDateTime(buffer));
+        }
+        if ((flags & HAS_UPDATED_AT) != 0) {
+            product.setUpdatedAt(getDateTime(buffer));
+        }
+        if ((flags & HAS_VERSION) != 0) {
+            product.setVersion(buffer.getLong());
+        }
+        return product;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            buffer.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
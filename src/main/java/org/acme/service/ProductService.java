@@ -1,21 +1,58 @@
 package org.acme.service;
 
+import java.util.ArrayList;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.acme.cache.ProductSkuCache;
+import org.acme.dto.ProductBatchItemDTO;
+import org.acme.dto.ProductBatchOutputDTO;
+import org.acme.dto.ProductBulkOutputDTO;
+import org.acme.dto.ProductChangeDTO;
+import org.acme.dto.ProductChangeCursor;
+import org.acme.dto.ProductChangesOutputDTO;
 import org.acme.dto.ProductInputDTO;
 import org.acme.dto.ProductOutputDTO;
+import org.acme.dto.ProductVersionDTO;
+import org.acme.exception.OptimisticLockFailures;
 import org.acme.exception.ProductAlreadyExistException;
+import org.acme.exception.ProductException;
 import org.acme.exception.ProductNotFoundException;
+import org.acme.exception.ProductPreconditionFailedException;
 import org.acme.exception.ProductValidationException;
+import org.acme.exception.UniqueViolations;
+import org.acme.index.ProductExistenceIndex;
+import org.acme.index.ProductSearchIndex;
+import org.acme.metrics.ProductTelemetry;
+import org.acme.metrics.Stage;
 import org.acme.model.Product;
-import org.acme.producer.ProductOutProducer;
+import org.acme.model.ProductEventType;
+import org.acme.model.ProductOutbox;
+import org.acme.repository.ProductOutboxRepository;
 import org.acme.repository.ProductRepository;
+import org.acme.repository.ReadReplicaRouter;
+import org.acme.validation.ProductInputValidator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.reactive.mutiny.Mutiny;
 import org.jboss.logging.Logger;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.hibernate.reactive.panache.Panache;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 
 /**
@@ -30,14 +67,54 @@ public class ProductService {
     @Inject
     ProductRepository productRepository;
 
+    @Inject
+    ReadReplicaRouter readReplicaRouter;
+
     @Inject
     ObjectMapper objectMapper;
 
     @Inject
-    ProductOutProducer productOutProducer;
+    ProductOutboxRepository outboxRepository;
+
+    @Inject
+    ProductSkuCache productSkuCache;
+
+    @Inject
+    ProductExistenceIndex productExistenceIndex;
+
+    @Inject
+    ProductSearchIndex productSearchIndex;
+
+    @Inject
+    ProductInputValidator validator;
+
+    @Inject
+    ProductTelemetry telemetry;
+
+    @Inject
+    Mutiny.SessionFactory sessionFactory;
+
+    @ConfigProperty(name = "products.listing.max-limit", defaultValue = "1000")
+    int listingMaxLimit;
+
+    @ConfigProperty(name = "products.search.max-limit", defaultValue = "50")
+    int searchMaxLimit;
+
+
+    @ConfigProperty(name = "products.bulk.max-skus", defaultValue = "100")
+    int bulkMaxSkus;
+
+    @ConfigProperty(name = "products.batch.max-size", defaultValue = "10000")
+    int batchMaxSize;
+
+    @ConfigProperty(name = "products.batch.chunk-size", defaultValue = "500")
+    int batchChunkSize;
 
     /**
      * Cria um novo produto.
+     * Se o índice de existência indicar que o SKU ou o nome talvez já existam, a duplicidade
+     * é confirmada por consulta; caso contrário a inserção é feita diretamente, e duplicados
+     * concorrentes são detectados pelas restrições de unicidade do banco.
      * 
      * @param input Dados do produto a ser criado
      * @return Produto criado convertido para DTO
@@ -48,37 +125,436 @@ public class ProductService {
         log.infof("Iniciando criação de produto: sku=%s, nome=%s", input.getSku(),
                 input.getName());
 
-        return productRepository.findBySkuOrName(input.getSku(), input.getName())
-                .onItem().ifNotNull().failWith(() -> new ProductAlreadyExistException(input.getSku(), input.getName()))
-                .onItem().ifNull().continueWith(() -> new Product(input.getSku(), input.getName()))
-                .flatMap(product -> Panache.withTransaction(product::persist))
+        Product product = new Product(input.getSku(), input.getName());
+        return telemetry.timed(Stage.TRANSACTION, "create", () -> Panache.withTransaction(() -> confirmAbsent(input)
+                        .chain(() -> product.persist())
+                        .call(persisted -> outboxRepository.persist(
+                                outboxEvent(ProductEventType.PRODUCT_CREATED, (Product) persisted)))))
+                .onFailure(UniqueViolations::isUniqueViolation)
+                .transform(throwable -> new ProductAlreadyExistException(input.getSku(), input.getName()))
                 .onItem().invoke(productPersisted -> {
                     log.infof("Produto persistido: id=%s, sku=%s, nome=%s",
                             ((Product) productPersisted).id, ((Product) productPersisted).sku,
                             ((Product) productPersisted).name);
+                    productExistenceIndex.add(((Product) productPersisted).sku, ((Product) productPersisted).name);
+                    readReplicaRouter.markWritten(((Product) productPersisted).sku);
+                    productSkuCache.invalidate(((Product) productPersisted).sku);
+                    productSearchIndex.put(ProductOutputDTO.fromEntity((Product) productPersisted));
                 })
-                .invoke(productPersisted -> productOutProducer
-                        .send(ProductOutputDTO.fromEntity((Product) productPersisted))
-                        .subscribe().with(
-                                unused -> log.infof("Evento enviado com sucesso: id=%s, sku=%s",
-                                        ((Product) productPersisted).id, ((Product) productPersisted).sku),
-                                throwable -> {
-                                    log.errorf("Erro ao enviar evento: %s", throwable.getMessage());
-                                    throw new RuntimeException("Erro ao enviar evento para Kafka", throwable);
-                                }))
                 .map(productPersisted -> ProductOutputDTO.fromEntity((Product) productPersisted))
-                .onFailure().invoke(throwable -> {
-                    log.errorf("Erro ao criar produto: %s", throwable.getMessage());
+                .onFailure().invoke(throwable -> logFailure("Erro ao criar produto", throwable));
+    }
+
+    private Uni<Void> confirmAbsent(ProductInputDTO input) {
+        if (!productExistenceIndex.mightExist(input.getSku(), input.getName())) {
+            return Uni.createFrom().voidItem();
+        }
+        return productRepository.findBySkuOrName(input.getSku(), input.getName())
+                .onItem().ifNotNull().failWith(() -> new ProductAlreadyExistException(input.getSku(),
+                        input.getName()))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Cria vários produtos de uma vez.
+     * Todos os itens são validados primeiro; os válidos são processados em blocos de
+     * {@code products.batch.chunk-size}, cada bloco com uma única consulta de duplicidade
+     * por SKU e nome, dispensada quando o índice de existência descarta todos os itens,
+     * e uma única transação de inserção.
+     *
+     * @param inputs Dados dos produtos a serem criados
+     * @return Resultado por item, na ordem recebida
+     * @throws ProductValidationException se o lote estiver vazio ou exceder o tamanho máximo
+     */
+    public Uni<ProductBatchOutputDTO> createBatch(List<ProductInputDTO> inputs) {
+        if (inputs == null || inputs.isEmpty() || inputs.size() > batchMaxSize) {
+            return Uni.createFrom().failure(new ProductValidationException(
+                    List.of(String.format("O lote deve conter entre 1 e %d produtos", batchMaxSize))));
+        }
+        log.infof("Iniciando criação de produtos em lote: itens=%d", inputs.size());
+        return createAll(inputs)
+                .invoke(output -> log.infof("Lote processado: criados=%d, conflitos=%d, inválidos=%d",
+                        output.getCreated(), output.getConflicts(), output.getInvalid()))
+                .onFailure().invoke(throwable -> logFailure("Erro ao criar produtos em lote", throwable));
+    }
+
+    /**
+     * Valida e cria os produtos em blocos de {@code products.batch.chunk-size}, sem limite de
+     * quantidade; quem chama controla o tamanho da lista. Usado pela criação em lote e pela importação.
+     * Cada bloco é gravado numa sessão e numa transação próprias, sem depender da sessão da
+     * requisição, de modo que a memória usada depende do tamanho do bloco, não da lista.
+     *
+     * @param inputs Dados dos produtos a serem criados
+     * @return Resultado por item, na ordem recebida
+     */
+    public Uni<ProductBatchOutputDTO> createAll(List<ProductInputDTO> inputs) {
+        ProductBatchItemDTO[] results = new ProductBatchItemDTO[inputs.size()];
+        List<Integer> pending = telemetry.record(Stage.VALIDATION, "batch", () -> classify(inputs, results));
+
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += batchChunkSize) {
+            chunks.add(pending.subList(start, Math.min(start + batchChunkSize, pending.size())));
+        }
+        return Multi.createFrom().iterable(chunks)
+                // uma criação concorrente pode passar entre a consulta e a inserção do bloco;
+                // refazer o bloco uma vez reclassifica esses itens como conflito
+                .onItem().transformToUniAndConcatenate(chunk -> createChunk(inputs, chunk, results, false)
+                        .onFailure(UniqueViolations::isUniqueViolation)
+                        .recoverWithUni(() -> createChunk(inputs, chunk, results, true)))
+                .collect().asList()
+                .map(unused -> ProductBatchOutputDTO.fromItems(Arrays.asList(results)));
+    }
+
+    /**
+     * Valida os itens do lote e descarta duplicados dentro do próprio lote, preenchendo os
+     * resultados desses itens.
+     *
+     * @return índices dos itens que seguem para a inserção
+     */
+    private List<Integer> classify(List<ProductInputDTO> inputs, ProductBatchItemDTO[] results) {
+        Set<String> skus = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int index = 0; index < inputs.size(); index++) {
+            ProductInputDTO input = inputs.get(index);
+            List<String> errors = validate(input);
+            if (!errors.isEmpty()) {
+                results[index] = ProductBatchItemDTO.failed(index, input == null ? null : input.getSku(),
+                        ProductBatchItemDTO.Status.INVALID, new ProductValidationException(errors));
+            } else if (skus.contains(input.getSku()) || names.contains(input.getName())) {
+                results[index] = conflict(index, input);
+            } else {
+                skus.add(input.getSku());
+                names.add(input.getName());
+                pending.add(index);
+            }
+        }
+        return pending;
+    }
+
+    private Uni<Void> createChunk(List<ProductInputDTO> inputs, List<Integer> chunk, ProductBatchItemDTO[] results,
+            boolean forceLookup) {
+        List<String> skus = chunk.stream().map(index -> inputs.get(index).getSku()).collect(Collectors.toList());
+        List<String> names = chunk.stream().map(index -> inputs.get(index).getName()).collect(Collectors.toList());
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        boolean lookup = forceLookup || chunk.stream().map(inputs::get)
+                .anyMatch(input -> productExistenceIndex.mightExist(input.getSku(), input.getName()));
+
+        // cada tentativa abre e fecha a própria sessão: a sessão que falhou na inserção é descartada
+        // antes da nova tentativa, e os produtos gravados não se acumulam de um bloco para o outro
+        return telemetry.timed(Stage.TRANSACTION, "createChunk", () -> sessionFactory.withTransaction(session -> (lookup
+                ? productRepository.findBySkusOrNames(session, skus, names)
+                : Uni.createFrom().item(List.<Product>of()))
+                .flatMap(existing -> {
+                    Set<String> existingSkus = existing.stream().map(p -> p.sku).collect(Collectors.toSet());
+                    Set<String> existingNames = existing.stream().map(p -> p.name).collect(Collectors.toSet());
+                    for (Integer index : chunk) {
+                        ProductInputDTO input = inputs.get(index);
+                        if (existingSkus.contains(input.getSku()) || existingNames.contains(input.getName())) {
+                            results[index] = conflict(index, input);
+                        } else {
+                            createdIndexes.add(index);
+                            products.add(new Product(input.getSku(), input.getName()));
+                        }
+                    }
+                    return session.persistAll(products.toArray())
+                            .chain(() -> session.persistAll(products.stream()
+                                    .map(product -> outboxEvent(ProductEventType.PRODUCT_CREATED, product))
+                                    .toArray()));
+                })))
+                .invoke(() -> {
+                    for (int i = 0; i < products.size(); i++) {
+                        Product product = products.get(i);
+                        ProductOutputDTO created = ProductOutputDTO.fromEntity(product);
+                        results[createdIndexes.get(i)] = ProductBatchItemDTO.created(createdIndexes.get(i), created);
+                        productExistenceIndex.add(product.sku, product.name);
+                        readReplicaRouter.markWritten(product.sku);
+                        productSkuCache.invalidate(product.sku);
+                        productSearchIndex.put(created);
+                    }
                 });
     }
 
-    public Uni<ProductOutputDTO> getBySku(String sku) {
-        log.infof("Buscando produto por SKU: %s", sku);
+    /**
+     * Altera o nome de um produto ativo. O SKU não pode ser alterado.
+     * A versão é verificada na leitura, contra {@code expectedVersions}, e novamente na
+     * gravação pelo bloqueio otimista, de modo que alterações concorrentes resultam em 412.
+     *
+     * @param sku              SKU do produto
+     * @param name             novo nome, ou {@code null} para manter o atual
+     * @param expectedVersions versões aceitas (If-Match), ou {@code null} para aceitar qualquer uma
+     * @return Produto alterado convertido para DTO
+     * @throws ProductNotFoundException           se não existir produto ativo com o SKU
+     * @throws ProductPreconditionFailedException se o produto não estiver em uma das versões aceitas
+     * @throws ProductAlreadyExistException       se o nome já estiver em uso por outro produto ativo
+     */
+    public Uni<ProductOutputDTO> update(String sku, String name, List<ProductVersionDTO> expectedVersions) {
+        log.infof("Iniciando alteração de produto: sku=%s, nome=%s", sku, name);
+        return telemetry.timed(Stage.TRANSACTION, "update", () -> Panache.withTransaction(
+                () -> findForUpdate(sku, expectedVersions)
+                        .call(product -> {
+                            if (name == null || name.equals(product.name)) {
+                                return Uni.createFrom().voidItem();
+                            }
+                            product.name = name;
+                            return product.flush()
+                                    .chain(() -> outboxRepository.persist(
+                                            outboxEvent(ProductEventType.PRODUCT_UPDATED, product)));
+                        })))
+                .onFailure(UniqueViolations::isUniqueViolation)
+                .transform(throwable -> new ProductAlreadyExistException(sku, name))
+                .onFailure(OptimisticLockFailures::isOptimisticLockFailure)
+                .transform(throwable -> new ProductPreconditionFailedException(sku))
+                .onItem().invoke(product -> {
+                    log.infof("Produto alterado: id=%s, sku=%s, nome=%s, versão=%s", product.id, product.sku,
+                            product.name, product.version);
+                    productExistenceIndex.add(product.sku, product.name);
+                    readReplicaRouter.markWritten(product.sku);
+                    productSkuCache.invalidate(product.sku);
+                })
+                .map(ProductOutputDTO::fromEntity)
+                .invoke(productSearchIndex::put)
+                .onFailure().invoke(throwable -> logFailure("Erro ao alterar produto", throwable));
+    }
+
+    /**
+     * Exclui logicamente um produto ativo, preenchendo {@code deletedAt}. O SKU e o nome
+     * ficam livres para um novo produto.
+     *
+     * @param sku              SKU do produto
+     * @param expectedVersions versões aceitas (If-Match), ou {@code null} para aceitar qualquer uma
+     * @throws ProductNotFoundException           se não existir produto ativo com o SKU
+     * @throws ProductPreconditionFailedException se o produto não estiver em uma das versões aceitas
+     */
+    public Uni<Void> delete(String sku, List<ProductVersionDTO> expectedVersions) {
+        log.infof("Iniciando exclusão de produto: sku=%s", sku);
+        return telemetry.timed(Stage.TRANSACTION, "delete", () -> Panache.withTransaction(
+                () -> findForUpdate(sku, expectedVersions)
+                        .call(product -> {
+                            product.deletedAt = LocalDateTime.now();
+                            return product.flush()
+                                    .chain(() -> outboxRepository.persist(
+                                            outboxEvent(ProductEventType.PRODUCT_DELETED, product)));
+                        })))
+                .onFailure(OptimisticLockFailures::isOptimisticLockFailure)
+                .transform(throwable -> new ProductPreconditionFailedException(sku))
+                .onItem().invoke(product -> {
+                    log.infof("Produto excluído: id=%s, sku=%s", product.id, product.sku);
+                    readReplicaRouter.markWritten(product.sku);
+                    productSkuCache.invalidate(product.sku);
+                    productSearchIndex.remove(ProductOutputDTO.fromEntity(product));
+                })
+                .onFailure().invoke(throwable -> logFailure("Erro ao excluir produto", throwable))
+                .replaceWithVoid();
+    }
+
+    private Uni<Product> findForUpdate(String sku, List<ProductVersionDTO> expectedVersions) {
         return productRepository.findBySku(sku)
+                .onItem().ifNull().failWith(() -> new ProductNotFoundException(sku))
+                .chain(product -> expectedVersions == null
+                        || expectedVersions.contains(new ProductVersionDTO(product.id, product.version))
+                                ? Uni.createFrom().item(product)
+                                : Uni.createFrom().failure(new ProductPreconditionFailedException(sku)));
+    }
+
+    /**
+     * Erros de domínio (404, 409, 412...) são resultados esperados e ficam em debug;
+     * apenas falhas inesperadas são registradas como erro.
+     */
+    private void logFailure(String message, Throwable throwable) {
+        if (throwable instanceof ProductException) {
+            log.debugf("%s: %s", message, throwable.getMessage());
+        } else {
+            log.errorf(throwable, "%s: %s", message, throwable.getMessage());
+        }
+    }
+
+    private List<String> validate(ProductInputDTO input) {
+        if (input == null) {
+            return List.of("Produto é obrigatório");
+        }
+        return validator.validate(input);
+    }
+
+    private ProductBatchItemDTO conflict(int index, ProductInputDTO input) {
+        return ProductBatchItemDTO.failed(index, input.getSku(), ProductBatchItemDTO.Status.CONFLICT,
+                new ProductAlreadyExistException(input.getSku(), input.getName()));
+    }
+
+    /**
+     * Monta o evento de outbox do produto; deve ser persistido na mesma transação da alteração.
+     */
+    private ProductOutbox outboxEvent(ProductEventType eventType, Product product) {
+        try {
+            return new ProductOutbox(product.sku, eventType,
+                    objectMapper.writeValueAsString(ProductOutputDTO.fromEntity(product)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento do produto " + product.sku, e);
+        }
+    }
+
+    /**
+     * Busca um produto pelo SKU, passando primeiro pelo cache em memória e depois pelo
+     * índice de existência. SKUs inexistentes, confirmados pelo índice ou pelo banco, também
+     * ficam em cache por um curto período.
+     *
+     * @param sku SKU do produto
+     * @return Produto encontrado convertido para DTO
+     * @throws ProductNotFoundException se não existir produto ativo com o SKU
+     */
+    public Uni<ProductOutputDTO> getBySku(String sku) {
+        log.debugf("Buscando produto por SKU: %s", sku);
+        return productSkuCache.get(sku, key -> productExistenceIndex.isSkuAbsent(key)
+                        .flatMap(absent -> absent
+                                ? Uni.createFrom().<ProductOutputDTO>nullItem()
+                                : productRepository.readBySku(key)
+                                        .map(product -> product == null ? null : ProductOutputDTO.fromEntity(product))))
                 .onItem().ifNull().failWith(() -> {
-                    log.errorf("Produto não encontrado para SKU: %s", sku);
+                    log.debugf("Produto não encontrado para SKU: %s", sku);
                     return new ProductNotFoundException(sku);
-                })
-                .map(product -> ProductOutputDTO.fromEntity((Product) product));
+                });
+    }
+
+    /**
+     * Obtém somente id e versão do produto, para validar ETags sem montar o produto completo.
+     * Usa o produto em cache quando houver; caso contrário, consulta apenas essas colunas.
+     *
+     * @param sku SKU do produto
+     * @return Id e versão do produto
+     * @throws ProductNotFoundException se não existir produto ativo com o SKU
+     */
+    public Uni<ProductVersionDTO> getVersionBySku(String sku) {
+        Optional<ProductOutputDTO> cached = productSkuCache.getIfPresent(sku);
+        long generation = productSkuCache.generation(sku);
+        Uni<ProductVersionDTO> version = cached != null
+                ? Uni.createFrom().item(cached.map(ProductVersionDTO::fromOutput).orElse(null))
+                : productExistenceIndex.isSkuAbsent(sku)
+                        .flatMap(absent -> absent
+                                ? Uni.createFrom().<ProductVersionDTO>nullItem()
+                                : productRepository.findVersionBySku(sku))
+                        .invoke(found -> {
+                            if (found == null) {
+                                productSkuCache.put(sku, generation, null);
+                            }
+                        });
+        return version.onItem().ifNull().failWith(() -> new ProductNotFoundException(sku));
+    }
+
+    /**
+     * Busca vários produtos pelo SKU.
+     * SKUs já presentes no cache são resolvidos em memória, e os que o índice de existência
+     * confirma como inexistentes dispensam o banco; os demais são buscados em uma única consulta.
+     *
+     * @param skus SKUs procurados
+     * @return Produtos encontrados, na ordem pedida, e SKUs inexistentes
+     * @throws ProductValidationException se nenhum SKU for informado ou o limite for excedido
+     */
+    public Uni<ProductBulkOutputDTO> getBySkus(List<String> skus) {
+        Set<String> requested = skus == null ? Set.of() : new LinkedHashSet<>(skus);
+        if (requested.isEmpty() || requested.size() > bulkMaxSkus) {
+            return Uni.createFrom().failure(new ProductValidationException(
+                    List.of(String.format("Informe entre 1 e %d SKUs", bulkMaxSkus))));
+        }
+        log.debugf("Buscando produtos por SKU: quantidade=%d", requested.size());
+
+        Map<String, Optional<ProductOutputDTO>> cached = productSkuCache.getAllPresent(requested);
+        List<String> uncached = requested.stream()
+                .filter(sku -> !cached.containsKey(sku))
+                .collect(Collectors.toList());
+        Map<String, Long> generations = uncached.stream()
+                .collect(Collectors.toMap(Function.identity(), productSkuCache::generation));
+        Uni<Map<String, ProductOutputDTO>> loaded = productExistenceIndex.absentSkus(uncached)
+                .flatMap(absent -> {
+                    absent.forEach(sku -> productSkuCache.put(sku, generations.get(sku), null));
+                    List<String> unresolved = uncached.stream()
+                            .filter(sku -> !absent.contains(sku))
+                            .collect(Collectors.toList());
+                    return unresolved.isEmpty()
+                            ? Uni.createFrom().item(Map.<String, ProductOutputDTO>of())
+                            : productRepository.findBySkus(unresolved)
+                                    .map(products -> products.stream()
+                                            .map(ProductOutputDTO::fromEntity)
+                                            .collect(Collectors.toMap(ProductOutputDTO::getSku, Function.identity())))
+                                    .invoke(found -> unresolved.forEach(sku -> productSkuCache.put(sku,
+                                            generations.get(sku), found.get(sku))));
+                });
+
+        return loaded.map(found -> {
+            List<ProductOutputDTO> products = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (String sku : requested) {
+                ProductOutputDTO product = cached.containsKey(sku) ? cached.get(sku).orElse(null) : found.get(sku);
+                if (product != null) {
+                    products.add(product);
+                } else {
+                    missing.add(sku);
+                }
+            }
+            return new ProductBulkOutputDTO(products, missing);
+        });
+    }
+
+    /**
+     * Lista produtos ativos em ordem de id, a partir de um cursor.
+     * Os produtos são emitidos conforme chegam do banco, sem montar a página em memória.
+     *
+     * @param after último id já lido pelo cliente (0 para começar do início)
+     * @param limit tamanho da página
+     * @return Produtos da página; o id do último é o cursor da próxima
+     * @throws ProductValidationException se o cursor ou o tamanho da página forem inválidos
+     */
+    public Multi<ProductOutputDTO> list(long after, int limit) {
+        if (after < 0 || limit < 1 || limit > listingMaxLimit) {
+            return Multi.createFrom().failure(new ProductValidationException(
+                    List.of(String.format("O cursor deve ser positivo e o limite entre 1 e %d", listingMaxLimit))));
+        }
+        log.debugf("Listando produtos: after=%d, limit=%d", after, limit);
+        return productRepository.streamAfter(after, limit)
+                .map(ProductOutputDTO::fromEntity);
+    }
+
+    /**
+     * Lê o feed de mudanças a partir de um cursor: produtos criados, alterados ou excluídos
+     * depois da posição informada, em ordem de alteração.
+     *
+     * @param since última posição já lida pelo cliente ({@code 0} para começar do início)
+     * @param limit tamanho máximo da página
+     * @return Alterações da página e cursor da próxima
+     * @throws ProductValidationException se o cursor ou o tamanho da página forem inválidos
+     */
+    public Uni<ProductChangesOutputDTO> changes(String since, int limit) {
+        ProductChangeCursor cursor = ProductChangeCursor.parse(since);
+        if (cursor == null || limit < 1 || limit > listingMaxLimit) {
+            return Uni.createFrom().failure(new ProductValidationException(List.of(String.format(
+                    "O cursor deve ser 0 ou o next de uma página anterior e o limite entre 1 e %d",
+                    listingMaxLimit))));
+        }
+        log.debugf("Lendo mudanças de produtos: since=%s, limit=%d", cursor, limit);
+        return productRepository.findChangesAfter(cursor, limit)
+                .map(products -> {
+                    List<ProductChangeDTO> changes = products.stream()
+                            .map(ProductChangeDTO::fromEntity)
+                            .collect(Collectors.toList());
+                    String next = changes.isEmpty() ? cursor.toString() : changes.get(changes.size() - 1).getPosition();
+                    return new ProductChangesOutputDTO(changes, next, changes.size() == limit);
+                });
+    }
+
+    /**
+     * Busca produtos ativos pelo prefixo do SKU ou do nome, no índice em memória.
+     *
+     * @param prefix prefixo procurado, sem diferenciar maiúsculas de minúsculas
+     * @param limit  quantidade máxima de produtos
+     * @return Produtos encontrados, em ordem alfabética
+     * @throws ProductValidationException se o prefixo estiver vazio ou o limite for inválido
+     */
+    public Uni<List<ProductOutputDTO>> search(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || prefix.length() > 40 || limit < 1 || limit > searchMaxLimit) {
+            return Uni.createFrom().failure(new ProductValidationException(List.of(String.format(
+                    "O prefixo deve ter entre 1 e 40 caracteres e o limite entre 1 e %d", searchMaxLimit))));
+        }
+        log.debugf("Buscando produtos por prefixo: prefixo=%s, limit=%d", prefix, limit);
+        return Uni.createFrom().item(() -> productSearchIndex.search(prefix, limit));
     }
 }
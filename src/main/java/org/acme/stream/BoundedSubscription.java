@@ -0,0 +1,104 @@
+package org.acme.stream;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Assinatura com buffer limitado: quem publica nunca espera pelo assinante. Eventos são
+ * entregues conforme a demanda do assinante e, com o buffer cheio, descartados segundo
+ * a {@link OverflowPolicy}.
+ */
+final class BoundedSubscription<T> implements Subscription {
+
+    private final Subscriber<? super T> downstream;
+    private final ArrayDeque<T> buffer;
+    private final int capacity;
+    private final OverflowPolicy overflow;
+    private final Counter dropped;
+    private final Runnable onCancel;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    BoundedSubscription(Subscriber<? super T> downstream, int capacity, OverflowPolicy overflow, Counter dropped,
+            Runnable onCancel) {
+        this.downstream = downstream;
+        this.buffer = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.dropped = dropped;
+        this.onCancel = onCancel;
+    }
+
+    void offer(T item) {
+        if (cancelled) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.size() >= capacity) {
+                dropped.increment();
+                if (overflow == OverflowPolicy.DROP) {
+                    return;
+                }
+                buffer.poll();
+            }
+            buffer.offer(item);
+        }
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            downstream.onError(new IllegalArgumentException("A demanda deve ser positiva: " + n));
+            return;
+        }
+        requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            onCancel.run();
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+    }
+
+    /** Entrega os eventos do buffer em uma única thread por vez, até acabar a demanda ou o buffer. */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            long demand = requested.get();
+            long emitted = 0;
+            while (emitted != demand && !cancelled) {
+                T item;
+                synchronized (buffer) {
+                    item = buffer.poll();
+                }
+                if (item == null) {
+                    break;
+                }
+                downstream.onNext(item);
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
@@ -0,0 +1,11 @@
+package org.acme.stream;
+
+/**
+ * O que fazer com um evento novo quando o buffer de um assinante está cheio.
+ */
+public enum OverflowPolicy {
+    /** Descarta o evento novo, mantendo os que já estavam no buffer. */
+    DROP,
+    /** Descarta o evento mais antigo do buffer para guardar o novo. */
+    LATEST
+}
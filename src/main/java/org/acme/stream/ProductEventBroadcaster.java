@@ -0,0 +1,82 @@
+package org.acme.stream;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.dto.ProductEventDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+
+/**
+ * Distribui alterações de produto aos assinantes conectados (SSE).
+ * Cada assinante tem seu próprio buffer limitado, de modo que um cliente lento perde
+ * eventos em vez de segurar quem publica ou acumular memória.
+ */
+@ApplicationScoped
+public class ProductEventBroadcaster {
+    Logger log = Logger.getLogger(ProductEventBroadcaster.class);
+
+    @ConfigProperty(name = "products.sse.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Set<BoundedSubscription<ProductEventDTO>> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private Counter droppedOldest;
+    private Counter droppedNewest;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("products.sse.subscribers", subscriptions, Set::size)
+                .description("Assinantes conectados ao stream de produtos")
+                .register(registry);
+        droppedNewest = dropCounter(OverflowPolicy.DROP);
+        droppedOldest = dropCounter(OverflowPolicy.LATEST);
+    }
+
+    private Counter dropCounter(OverflowPolicy overflow) {
+        return Counter.builder("products.sse.dropped")
+                .description("Eventos descartados por buffer de assinante cheio")
+                .tag("overflow", overflow.name().toLowerCase())
+                .register(registry);
+    }
+
+    /**
+     * Assina as alterações publicadas a partir de agora.
+     *
+     * @param overflow política aplicada quando o buffer do assinante estiver cheio
+     * @return eventos, até o assinante cancelar
+     */
+    public Multi<ProductEventDTO> subscribe(OverflowPolicy overflow) {
+        return Multi.createFrom().publisher(subscriber -> {
+            @SuppressWarnings("unchecked")
+            BoundedSubscription<ProductEventDTO>[] self = new BoundedSubscription[1];
+            self[0] = new BoundedSubscription<>(subscriber, bufferSize, overflow,
+                    overflow == OverflowPolicy.DROP ? droppedNewest : droppedOldest,
+                    () -> subscriptions.remove(self[0]));
+            subscriptions.add(self[0]);
+            log.debugf("Assinante conectado ao stream de produtos: assinantes=%d", subscriptions.size());
+            subscriber.onSubscribe(self[0]);
+        });
+    }
+
+    /**
+     * Entrega o evento a todos os assinantes conectados, sem esperar por nenhum deles.
+     */
+    public void publish(ProductEventDTO event) {
+        for (BoundedSubscription<ProductEventDTO> subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+}
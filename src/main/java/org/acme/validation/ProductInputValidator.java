@@ -0,0 +1,137 @@
+package org.acme.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.acme.dto.ProductInputDTO;
+import org.acme.dto.ProductPatchDTO;
+
+/**
+ * Valida os dados de produto sem passar pelo Bean Validation a cada requisição.
+ * Aplica as mesmas regras das anotações de {@link ProductInputDTO} e {@link ProductPatchDTO}
+ * com verificações por caractere no lugar das expressões regulares, e devolve as mensagens
+ * de {@code ValidationMessages.properties}, lidas uma única vez.
+ */
+@ApplicationScoped
+public class ProductInputValidator {
+
+    private final FieldRule sku;
+    private final FieldRule name;
+
+    public ProductInputValidator() {
+        ResourceBundle messages = ResourceBundle.getBundle("ValidationMessages");
+        sku = new FieldRule(5, 12, ProductInputValidator::isSkuChar, messages.getString("sku.obrigatorio"),
+                messages.getString("sku.size"), messages.getString("sku.pattern"));
+        name = new FieldRule(3, 40, ProductInputValidator::isNameChar, messages.getString("nome.obrigatorio"),
+                messages.getString("nome.size"), messages.getString("nome.pattern"));
+    }
+
+    /**
+     * @return mensagens das regras violadas; lista vazia e imutável se o produto for válido
+     */
+    public List<String> validate(ProductInputDTO input) {
+        List<String> errors = sku.check(input.getSku(), true, null);
+        errors = name.check(input.getName(), true, errors);
+        return errors == null ? List.of() : errors;
+    }
+
+    /**
+     * Valida uma alteração parcial: o nome é opcional, mas se informado segue as mesmas regras.
+     *
+     * @return mensagens das regras violadas; lista vazia e imutável se a alteração for válida
+     */
+    public List<String> validate(ProductPatchDTO patch) {
+        List<String> errors = name.check(patch.getName(), false, null);
+        return errors == null ? List.of() : errors;
+    }
+
+    /** Equivalente a {@code ^[A-Z0-9-]+$}. */
+    static boolean isSkuChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    /** Equivalente a {@code ^[a-zA-Z0-9\s-]+$}, com {@code \s} no sentido padrão (somente ASCII). */
+    static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-'
+                || c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    @FunctionalInterface
+    interface CharRule {
+        boolean allows(char c);
+    }
+
+    /**
+     * Regras {@code @NotBlank}, {@code @Size} e {@code @Pattern} de um campo. Como no Bean Validation,
+     * um valor nulo só viola a obrigatoriedade, e as demais regras são avaliadas independentemente.
+     */
+    static final class FieldRule {
+
+        private final int min;
+        private final int max;
+        private final CharRule allowed;
+        private final String requiredMessage;
+        private final String sizeMessage;
+        private final String patternMessage;
+
+        FieldRule(int min, int max, CharRule allowed, String requiredMessage, String sizeMessage,
+                String patternMessage) {
+            this.min = min;
+            this.max = max;
+            this.allowed = allowed;
+            this.requiredMessage = requiredMessage;
+            this.sizeMessage = sizeMessage;
+            this.patternMessage = patternMessage;
+        }
+
+        List<String> check(String value, boolean required, List<String> errors) {
+            if (value == null) {
+                return required ? add(errors, requiredMessage) : errors;
+            }
+            int length = value.length();
+            if (required && isBlank(value)) {
+                errors = add(errors, requiredMessage);
+            }
+            if (length < min || length > max) {
+                errors = add(errors, sizeMessage);
+            }
+            if (!matches(value)) {
+                errors = add(errors, patternMessage);
+            }
+            return errors;
+        }
+
+        private boolean matches(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (!allowed.allows(value.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Mesmo critério de {@code @NotBlank}: vazio após {@link String#trim()}. */
+        private static boolean isBlank(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static List<String> add(List<String> errors, String message) {
+            if (errors == null) {
+                errors = new ArrayList<>(3);
+            }
+            errors.add(message);
+            return errors;
+        }
+    }
+}
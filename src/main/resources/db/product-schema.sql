@@ -0,0 +1,24 @@
+-- Esquema do banco de produtos. Pode ser aplicado mais de uma vez: em produção, com
+-- "psql -v ON_ERROR_STOP=1 -f product-schema.sql" antes de cada versão da aplicação; em dev e
+-- test, depois das tabelas geradas pelo Hibernate (quarkus.hibernate-orm.sql-load-script).
+-- As tabelas seguem o mapeamento das entidades; os demais objetos não são gerados pelo Hibernate
+-- e a aplicação depende deles.
+CREATE SEQUENCE IF NOT EXISTS hibernate_sequence START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_outbox_id_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS product (id bigint NOT NULL PRIMARY KEY, sku varchar(12) NOT NULL, name varchar(40) NOT NULL, created_at timestamp NOT NULL, updated_at timestamp, deleted_at timestamp, version bigint, change_xid bigint, change_seq bigint, changed_at timestamp);
+CREATE TABLE IF NOT EXISTS product_outbox (id bigint NOT NULL PRIMARY KEY, sku varchar(12) NOT NULL, event_type varchar(30) NOT NULL, payload text NOT NULL, seq bigint, lease_until timestamp, attempts integer NOT NULL DEFAULT 0, last_error text, quarantined_at timestamp, created_at timestamp NOT NULL);
+CREATE TABLE IF NOT EXISTS product_idempotency (idempotency_key varchar(255) NOT NULL PRIMARY KEY, fingerprint text NOT NULL, status integer NOT NULL, body text NOT NULL, created_at timestamp NOT NULL);
+-- Unicidade e busca restritas a produtos ativos; linhas excluídas não ocupam esses índices
+CREATE UNIQUE INDEX IF NOT EXISTS product_sku_live_uk ON product (sku) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS product_name_live_uk ON product (name) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS product_live_id_idx ON product (id) WHERE deleted_at IS NULL;
+-- Feed de mudanças: cada inserção ou alteração registra a transação que a gravou e a próxima posição da sequência
+CREATE SEQUENCE IF NOT EXISTS product_change_seq;
+CREATE OR REPLACE FUNCTION product_track_change() RETURNS trigger AS 'BEGIN NEW.change_xid := pg_current_xact_id()::text::bigint; NEW.change_seq := nextval(''product_change_seq''); NEW.changed_at := clock_timestamp(); RETURN NEW; END;' LANGUAGE plpgsql;
+DROP TRIGGER IF EXISTS product_track_change_trg ON product;
+CREATE TRIGGER product_track_change_trg BEFORE INSERT OR UPDATE ON product FOR EACH ROW EXECUTE PROCEDURE product_track_change();
+CREATE INDEX IF NOT EXISTS product_change_position_idx ON product (change_xid, change_seq);
+-- Outbox: ordem de publicação atribuída na inserção; o relay só reserva o evento mais antigo de cada SKU
+CREATE SEQUENCE IF NOT EXISTS product_outbox_seq;
+ALTER TABLE product_outbox ALTER COLUMN seq SET DEFAULT nextval('product_outbox_seq');
+CREATE INDEX IF NOT EXISTS product_outbox_sku_seq_idx ON product_outbox (sku, seq);
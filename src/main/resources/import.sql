@@ -1,3 +1,4 @@
+-- Dados de exemplo para dev e test; o esquema fica em db/product-schema.sql, carregado antes
 INSERT INTO product(id, sku, name, created_at) VALUES (nextval('hibernate_sequence'), '1234567890', 'Product 1', CURRENT_TIMESTAMP);
 INSERT INTO product(id, sku, name, created_at) VALUES (nextval('hibernate_sequence'), '1234567891', 'Product 2', CURRENT_TIMESTAMP);
 INSERT INTO product(id, sku, name, created_at) VALUES (nextval('hibernate_sequence'), '1234567892', 'Product 3', CURRENT_TIMESTAMP);
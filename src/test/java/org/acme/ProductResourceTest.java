@@ -1,8 +1,16 @@
 package org.acme;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
 import javax.ws.rs.core.MediaType;
 
 import org.acme.dto.ProductInputDTO;
@@ -13,9 +21,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Transaction;
+import io.vertx.mutiny.sqlclient.Tuple;
 
 @QuarkusTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -36,12 +49,15 @@ class ProductResourceTest {
     private final String SKU_FORMAT = "SKU deve conter apenas letras maiúsculas, números e hífen";
     private final String NAME_FORMAT = "Nome deve conter apenas letras, números, espaços e hífen";
 
+    @Inject
+    PgPool client;
+
     @BeforeEach
     void limparBanco() {
         Product.deleteAll().await().indefinitely();
     }
 
-    private String toJson(ProductInputDTO dto) {
+    private String toJson(Object dto) {
         try {
             return new ObjectMapper().writeValueAsString(dto);
         } catch (JsonProcessingException e) {
@@ -146,6 +162,22 @@ class ProductResourceTest {
                 "Já existe um produto com o SKU SKU-UNICO-2");
     }
 
+    @Test
+    void shouldReplayResponseForRepeatedIdempotencyKey() {
+        String json = toJson(new ProductInputDTO("SKU-IDEM-1", "Produto Idempotente"));
+        given().contentType(MediaType.APPLICATION_JSON).header("Idempotency-Key", "criar-sku-idem-1").body(json)
+                .when().post(BASE_URL).then().statusCode(201)
+                .header("Idempotent-Replayed", nullValue());
+        given().contentType(MediaType.APPLICATION_JSON).header("Idempotency-Key", "criar-sku-idem-1").body(json)
+                .when().post(BASE_URL).then().statusCode(201)
+                .header("Idempotent-Replayed", "true")
+                .body("sku", equalTo("SKU-IDEM-1"));
+        String other = toJson(new ProductInputDTO("SKU-IDEM-2", "Outro Idempotente"));
+        given().contentType(MediaType.APPLICATION_JSON).header("Idempotency-Key", "criar-sku-idem-1").body(other)
+                .when().post(BASE_URL).then().statusCode(400)
+                .body(containsString("IDEMPOTENCY_KEY_REUSED"));
+    }
+
     @Test
     void shouldReturnErrorWhenGetNonexistentSku() {
         given().when().get(BASE_URL + "/SKU_INEXISTENTE").then().statusCode(404)
@@ -159,6 +191,243 @@ class ProductResourceTest {
                 .body(containsString(NAME_VALID));
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-ETAG-1", "Produto ETag")), 201, "SKU-ETAG-1");
+        String etag = given().when().get(BASE_URL + "/SKU-ETAG-1").then().statusCode(200)
+                .extract().header("ETag");
+        given().header("If-None-Match", etag).when().get(BASE_URL + "/SKU-ETAG-1").then().statusCode(304)
+                .header("ETag", etag);
+        given().header("If-None-Match", "\"0-0\"").when().get(BASE_URL + "/SKU-ETAG-1").then().statusCode(200)
+                .header("ETag", etag).body(containsString("Produto ETag"));
+    }
+
+    @Test
+    void shouldUpdateProductWhenIfMatchIsCurrent() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-UPD-1", "Produto Original")), 201, "SKU-UPD-1");
+        String etag = given().when().get(BASE_URL + "/SKU-UPD-1").then().statusCode(200).extract().header("ETag");
+        String json = toJson(new ProductInputDTO("SKU-UPD-1", "Produto Alterado"));
+        String newEtag = given().contentType(MediaType.APPLICATION_JSON).header("If-Match", etag).body(json).when()
+                .put(BASE_URL + "/SKU-UPD-1").then().statusCode(200)
+                .body("name", equalTo("Produto Alterado"))
+                .extract().header("ETag");
+        given().contentType(MediaType.APPLICATION_JSON).header("If-Match", etag).body("{\"name\":\"Outro Nome\"}")
+                .when().patch(BASE_URL + "/SKU-UPD-1").then().statusCode(412);
+        given().contentType(MediaType.APPLICATION_JSON).header("If-Match", newEtag).body("{\"name\":\"Outro Nome\"}")
+                .when().patch(BASE_URL + "/SKU-UPD-1").then().statusCode(200).body("name", equalTo("Outro Nome"));
+    }
+
+    @Test
+    void shouldReturnErrorWhenUpdateChangesSku() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-UPD-2", "Produto Imutavel")), 201, "SKU-UPD-2");
+        given().contentType(MediaType.APPLICATION_JSON).body(toJson(new ProductInputDTO("SKU-UPD-3", "Produto Imutavel")))
+                .when().put(BASE_URL + "/SKU-UPD-2").then().statusCode(400)
+                .body(containsString("SKU não pode ser alterado"));
+    }
+
+    @Test
+    void shouldAllowRecreatingSoftDeletedSku() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-DEL-1", "Produto Excluido")), 201, "SKU-DEL-1");
+        given().when().delete(BASE_URL + "/SKU-DEL-1").then().statusCode(204);
+        given().when().get(BASE_URL + "/SKU-DEL-1").then().statusCode(404);
+        given().when().delete(BASE_URL + "/SKU-DEL-1").then().statusCode(404);
+        postAndExpect(toJson(new ProductInputDTO("SKU-DEL-1", "Produto Excluido")), 201, "SKU-DEL-1");
+    }
+
+    @Test
+    void shouldReturnProductCreatedAfterNotFoundLookup() {
+        given().when().get(BASE_URL + "/SKU-CACHE-1").then().statusCode(404);
+        postAndExpect(toJson(new ProductInputDTO("SKU-CACHE-1", "Produto Cache")), 201, "SKU-CACHE-1");
+        given().when().get(BASE_URL + "/SKU-CACHE-1").then().statusCode(200).body(containsString("Produto Cache"));
+    }
+
+    @Test
+    void shouldReturnPerItemResultsWhenCreateBatch() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-LOTE-1", "Produto Lote 1")), 201, "SKU-LOTE-1");
+        String json = toJson(List.of(
+                new ProductInputDTO("SKU-LOTE-2", "Produto Lote 2"),
+                new ProductInputDTO("SKU-LOTE-1", "Produto Lote 3"),
+                new ProductInputDTO(SKU_INVALID, NAME_VALID)));
+        given().contentType(MediaType.APPLICATION_JSON).body(json).when().post(BASE_URL + "/batch").then()
+                .statusCode(200)
+                .body("created", equalTo(1))
+                .body("conflicts", equalTo(1))
+                .body("invalid", equalTo(1))
+                .body("items[0].status", equalTo("CREATED"))
+                .body("items[1].status", equalTo("CONFLICT"))
+                .body("items[2].status", equalTo("INVALID"))
+                .body("items[2].error.details[0]", equalTo(SKU_FORMAT));
+    }
+
+    @Test
+    void shouldReturnErrorWhenBatchIsEmpty() {
+        given().contentType(MediaType.APPLICATION_JSON).body("[]").when().post(BASE_URL + "/batch").then()
+                .statusCode(400);
+    }
+
+    @Test
+    void shouldReturnFoundAndMissingWhenGetBySkus() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-BULK-1", "Produto Bulk 1")), 201, "SKU-BULK-1");
+        given().when().get(BASE_URL + "?sku=SKU-BULK-1&sku=SKU-BULK-2").then().statusCode(200)
+                .body("found[0].sku", equalTo("SKU-BULK-1"))
+                .body("missing[0]", equalTo("SKU-BULK-2"));
+    }
+
+    @Test
+    void shouldListProductsWithKeysetPagination() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-PAGE-1", "Produto Pagina 1")), 201, "SKU-PAGE-1");
+        postAndExpect(toJson(new ProductInputDTO("SKU-PAGE-2", "Produto Pagina 2")), 201, "SKU-PAGE-2");
+        Number cursor = given().when().get(BASE_URL + "/page?limit=1").then().statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].sku", equalTo("SKU-PAGE-1"))
+                .extract().path("[0].id");
+        given().when().get(BASE_URL + "/page?limit=1&after=" + cursor).then().statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].sku", equalTo("SKU-PAGE-2"));
+    }
+
+    @Test
+    void shouldSearchProductsByPrefix() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-SRCH-1", "Busca Prefixo")), 201, "SKU-SRCH-1");
+        given().when().get(BASE_URL + "/search?prefix=busca pre").then().statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].sku", equalTo("SKU-SRCH-1"));
+        given().when().get(BASE_URL + "/search?prefix=sku-srch").then().statusCode(200)
+                .body("[0].name", equalTo("Busca Prefixo"));
+        given().when().get(BASE_URL + "/search?prefix=").then().statusCode(400);
+    }
+
+    @Test
+    void shouldListChangesAfterCursor() {
+        String start = given().when().get(BASE_URL + "/changes?since=0&limit=1000").then().statusCode(200)
+                .extract().path("next");
+        postAndExpect(toJson(new ProductInputDTO("SKU-CHG-1", "Produto Mudanca 1")), 201, "SKU-CHG-1");
+        postAndExpect(toJson(new ProductInputDTO("SKU-CHG-2", "Produto Mudanca 2")), 201, "SKU-CHG-2");
+        given().when().delete(BASE_URL + "/SKU-CHG-1").then().statusCode(204);
+        given().when().get(BASE_URL + "/changes?since=" + start).then().statusCode(200)
+                .body("changes.size()", equalTo(2))
+                .body("changes[0].product.sku", equalTo("SKU-CHG-2"))
+                .body("changes[0].type", equalTo("PRODUCT_CREATED"))
+                .body("changes[1].product.sku", equalTo("SKU-CHG-1"))
+                .body("changes[1].type", equalTo("PRODUCT_DELETED"));
+    }
+
+    @Test
+    void shouldNotSkipChangesCommittedByLongerTransactions() {
+        String start = given().when().get(BASE_URL + "/changes?since=0&limit=1000").then().statusCode(200)
+                .extract().path("next");
+        SqlConnection connection = client.getConnectionAndAwait();
+        try {
+            Transaction transaction = connection.beginAndAwait();
+            connection.preparedQuery("INSERT INTO product(id, sku, name, created_at, version)"
+                    + " VALUES (nextval('hibernate_sequence'), $1, $2, now(), 0)")
+                    .executeAndAwait(Tuple.of("SKU-LONG-1", "Produto Transacao Longa"));
+            // confirmada depois, mas com posição anterior à do produto criado pela API
+            postAndExpect(toJson(new ProductInputDTO("SKU-LONG-2", "Produto Transacao Curta")), 201, "SKU-LONG-2");
+
+            given().when().get(BASE_URL + "/changes?since=" + start).then().statusCode(200)
+                    .body("changes.size()", equalTo(0))
+                    .body("next", equalTo(start));
+
+            transaction.commitAndAwait();
+        } finally {
+            connection.closeAndAwait();
+        }
+        given().when().get(BASE_URL + "/changes?since=" + start).then().statusCode(200)
+                .body("changes.size()", equalTo(2))
+                .body("changes[0].product.sku", equalTo("SKU-LONG-1"))
+                .body("changes[1].product.sku", equalTo("SKU-LONG-2"));
+        given().when().get(BASE_URL + "/changes?since=abc").then().statusCode(400);
+    }
+
+    @Test
+    void shouldImportNdjsonInChunks() {
+        String ndjson = "{\"sku\":\"SKU-IMP-1\",\"name\":\"Produto Importado 1\"}\n"
+                + "{\"sku\":\"SKU-IMP-2\",\"name\":\"Produto Importado 2\"}\n"
+                + "\n"
+                + "{\"sku\":\"SKU-IMP-3\",\"name\":\"Produto Importado 3\"}\n"
+                + "{\"sku\":\"sku invalido\",\"name\":\"Produto Invalido\"}\n";
+        List<JsonNode> progress = importAndReadProgress("application/x-ndjson", ndjson);
+
+        assertThat(progress).hasSize(3);
+        assertThat(progress.get(0).get("processed").asLong()).isEqualTo(2);
+        assertThat(progress.get(0).get("created").asLong()).isEqualTo(2);
+        assertThat(progress.get(0).get("done").asBoolean()).isFalse();
+        assertThat(progress.get(1).get("processed").asLong()).isEqualTo(4);
+        assertThat(progress.get(1).get("created").asLong()).isEqualTo(3);
+        assertThat(progress.get(1).get("invalid").asLong()).isEqualTo(1);
+        assertThat(progress.get(1).get("failures").get(0).get("index").asInt()).isEqualTo(5);
+        assertThat(progress.get(2).get("done").asBoolean()).isTrue();
+        assertThat(progress.get(2).get("error").isNull()).isTrue();
+
+        for (String sku : List.of("SKU-IMP-1", "SKU-IMP-2", "SKU-IMP-3")) {
+            given().when().get(BASE_URL + "/" + sku).then().statusCode(200).body("sku", equalTo(sku));
+        }
+    }
+
+    @Test
+    void shouldImportCsvAndReportConflicts() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-CSV-3", "Produto Csv 3")), 201, "SKU-CSV-3");
+        String csv = "sku,name\r\n"
+                + "SKU-CSV-1,Produto Csv 1\r\n"
+                + "SKU-CSV-2,\"Produto Csv 2\"\r\n"
+                + "SKU-CSV-3,Produto Csv 3\r\n";
+        List<JsonNode> progress = importAndReadProgress("text/csv", csv);
+
+        assertThat(progress).hasSize(3);
+        JsonNode done = progress.get(2);
+        assertThat(done.get("done").asBoolean()).isTrue();
+        assertThat(done.get("processed").asLong()).isEqualTo(3);
+        assertThat(done.get("created").asLong()).isEqualTo(2);
+        assertThat(done.get("conflicts").asLong()).isEqualTo(1);
+        assertThat(progress.get(1).get("failures").get(0).get("index").asInt()).isEqualTo(4);
+
+        given().when().get(BASE_URL + "/SKU-CSV-1").then().statusCode(200).body("name", equalTo("Produto Csv 1"));
+        given().when().get(BASE_URL + "/SKU-CSV-2").then().statusCode(200).body("name", equalTo("Produto Csv 2"));
+    }
+
+    private List<JsonNode> importAndReadProgress(String contentType, String body) {
+        String response = given().contentType(contentType).body(body).when().post(BASE_URL + "/import").then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .extract().asString();
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            try {
+                lines.add(objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    void shouldExportCatalogAsGzipNdjson() {
+        postAndExpect(toJson(new ProductInputDTO("SKU-EXP-1", "Produto Export 1")), 201, "SKU-EXP-1");
+        postAndExpect(toJson(new ProductInputDTO("SKU-EXP-2", "Produto Export 2")), 201, "SKU-EXP-2");
+        given().when().delete(BASE_URL + "/SKU-EXP-2").then().statusCode(204);
+        // o RestAssured descompacta o corpo conforme o Content-Encoding
+        given().when().get(BASE_URL + "/export").then().statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .body(containsString("\"sku\":\"SKU-EXP-1\""))
+                .body(not(containsString("SKU-EXP-2")));
+    }
+
+    @Test
+    void shouldExportStageTimersAndErrorCounters() {
+        String json = toJson(new ProductInputDTO("SKU-MET-1", "Produto Metricas"));
+        given().contentType(MediaType.APPLICATION_JSON).body(json).when().post(BASE_URL).then().statusCode(201);
+        given().when().get(BASE_URL + "/SKU-MET-404").then().statusCode(404);
+
+        given().when().get("/q/metrics").then().statusCode(200)
+                .body(containsString("products_request_seconds_bucket{operation=\"create\",outcome=\"success\",le=\"0.005\"}"))
+                .body(containsString("products_transaction_seconds_count{operation=\"create\",outcome=\"success\""))
+                .body(containsString("products_validation_seconds_count{operation=\"create\""))
+                .body(containsString("products_errors_total{status=\"404\",type=\"ProductNotFoundException\""));
+    }
+
     @Test
     void shouldReturnXTraceIdHeaderInResponse() {
         String traceId = "trace-id-teste-123";
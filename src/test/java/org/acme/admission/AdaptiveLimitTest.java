@@ -0,0 +1,86 @@
+package org.acme.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimitTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void shouldRejectAboveTheLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, TARGET, 0.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        limit.release(FAST, 0);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldGrowWhileBusyAndFast() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 10, TARGET, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            fill(limit);
+            drain(limit, FAST, 0);
+        }
+
+        assertThat(limit.limit()).isGreaterThan(4);
+    }
+
+    @Test
+    void shouldNotGrowWhileIdle() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 10, TARGET, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, 0);
+        }
+
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldBackOffOncePerLatencyTargetWhenSlow() {
+        AdaptiveLimit limit = new AdaptiveLimit(8, 1, 10, TARGET, 0.5);
+
+        fill(limit);
+        drain(limit, SLOW, 0);
+        assertThat(limit.limit()).isEqualTo(4);
+
+        fill(limit);
+        drain(limit, SLOW, TARGET);
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotGoBelowTheMinimum() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 2, 10, TARGET, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(SLOW, i * TARGET);
+        }
+
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    private static void fill(AdaptiveLimit limit) {
+        while (limit.tryAcquire()) {
+            // ocupa todas as vagas
+        }
+    }
+
+    private static void drain(AdaptiveLimit limit, long latency, long now) {
+        while (limit.inFlight() > 0) {
+            limit.release(latency, now);
+        }
+    }
+}
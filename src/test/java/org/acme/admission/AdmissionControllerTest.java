@@ -0,0 +1,103 @@
+package org.acme.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.acme.admission.AdmissionController.TrafficClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.http.HttpMethod;
+
+class AdmissionControllerTest {
+
+    private final AdmissionController controller = new AdmissionController();
+
+    @BeforeEach
+    void setUp() {
+        controller.registry = new SimpleMeterRegistry();
+        controller.objectMapper = new ObjectMapper();
+        controller.readInitialLimit = 10;
+        controller.readMinLimit = 1;
+        controller.readMaxLimit = 100;
+        controller.readLatencyTarget = Duration.ofMillis(100);
+        controller.writeInitialLimit = 10;
+        controller.writeMinLimit = 1;
+        controller.writeMaxLimit = 100;
+        controller.writeLatencyTarget = Duration.ofMillis(250);
+        controller.shedWritesAboveReadUtilization = 0.8;
+        controller.backoffRatio = 0.9;
+        controller.retryAfterSeconds = 1;
+        controller.readinessWindow = Duration.ofSeconds(5);
+        controller.readinessRejectionRatio = 0.5;
+        controller.init();
+    }
+
+    @Test
+    void shouldClassifySafeMethodsAsReads() {
+        assertThat(AdmissionController.classify(HttpMethod.GET)).isEqualTo(TrafficClass.READ);
+        assertThat(AdmissionController.classify(HttpMethod.HEAD)).isEqualTo(TrafficClass.READ);
+        assertThat(AdmissionController.classify(HttpMethod.POST)).isEqualTo(TrafficClass.WRITE);
+        assertThat(AdmissionController.classify(HttpMethod.PATCH)).isEqualTo(TrafficClass.WRITE);
+        assertThat(AdmissionController.classify(HttpMethod.DELETE)).isEqualTo(TrafficClass.WRITE);
+    }
+
+    @Test
+    void shouldShedWritesBeforeReadsAreSaturated() {
+        for (int i = 0; i < 8; i++) {
+            assertThat(controller.tryAcquire(TrafficClass.READ)).isTrue();
+        }
+
+        assertThat(controller.tryAcquire(TrafficClass.WRITE)).isFalse();
+        assertThat(controller.tryAcquire(TrafficClass.READ)).isTrue();
+        assertThat(controller.writes().inFlight()).isZero();
+    }
+
+    @Test
+    void shouldKeepReadsAvailableWhenWritesAreSaturated() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(controller.tryAcquire(TrafficClass.WRITE)).isTrue();
+        }
+
+        assertThat(controller.tryAcquire(TrafficClass.WRITE)).isFalse();
+        assertThat(controller.tryAcquire(TrafficClass.READ)).isTrue();
+    }
+
+    @Test
+    void shouldReportSaturationOnlyWhenReadRejectionsAreSustained() {
+        long second = Duration.ofSeconds(1).toNanos();
+        for (int i = 0; i < 5; i++) {
+            controller.readOutcomes.record(true, i * second);
+            controller.readOutcomes.record(i == 2, i * second + 1);
+        }
+
+        // no terceiro segundo só metade das leituras foi recusada, o que ainda conta
+        assertThat(controller.readsSaturated(5 * second)).isTrue();
+
+        controller.readOutcomes.record(false, 5 * second);
+        controller.readOutcomes.record(false, 5 * second + 1);
+        controller.readOutcomes.record(true, 5 * second + 2);
+        assertThat(controller.readsSaturated(6 * second)).isFalse();
+    }
+
+    @Test
+    void shouldStayReadyWithoutTrafficOrAtMinimumLimit() {
+        long second = Duration.ofSeconds(1).toNanos();
+        controller.readOutcomes.record(true, 4 * second);
+        assertThat(controller.readsSaturated(5 * second)).isFalse();
+
+        for (int i = 0; i < 30; i++) {
+            controller.reads().tryAcquire();
+            controller.reads().release(Duration.ofSeconds(1).toNanos(), i * second);
+        }
+        for (int i = 0; i < 5; i++) {
+            controller.readOutcomes.record(true, i * second);
+        }
+        assertThat(controller.reads().atMinimum()).isTrue();
+        assertThat(controller.readsSaturated(5 * second)).isFalse();
+    }
+}
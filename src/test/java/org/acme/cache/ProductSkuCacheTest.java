@@ -0,0 +1,89 @@
+package org.acme.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.acme.dto.ProductOutputDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+
+class ProductSkuCacheTest {
+
+    private final ProductSkuCache cache = new ProductSkuCache();
+
+    @BeforeEach
+    void setUp() {
+        cache.maximumSize = 100;
+        cache.ttl = Duration.ofMinutes(5);
+        cache.negativeTtl = Duration.ofSeconds(10);
+        cache.registry = new SimpleMeterRegistry();
+        cache.init();
+    }
+
+    @Test
+    void shouldStoreLoadedProduct() {
+        ProductOutputDTO product = product("Produto Atual");
+
+        cache.get("SKU-1", key -> Uni.createFrom().item(product)).await().indefinitely();
+
+        assertThat(cache.getIfPresent("SKU-1")).contains(product);
+    }
+
+    @Test
+    void shouldDiscardLoadStartedBeforeInvalidation() {
+        AtomicReference<UniEmitter<? super ProductOutputDTO>> pending = new AtomicReference<>();
+        AtomicReference<ProductOutputDTO> result = new AtomicReference<>();
+        cache.get("SKU-1", key -> Uni.createFrom().<ProductOutputDTO>emitter(pending::set))
+                .subscribe().with(result::set);
+
+        // a gravação termina enquanto a busca ainda lê o estado anterior
+        cache.invalidate("SKU-1");
+        pending.get().complete(product("Produto Antigo"));
+
+        assertThat(result.get().getName()).isEqualTo("Produto Antigo");
+        assertThat(cache.getIfPresent("SKU-1")).isNull();
+    }
+
+    @Test
+    void shouldLoadAgainForCallersArrivingAfterInvalidation() {
+        AtomicReference<UniEmitter<? super ProductOutputDTO>> before = new AtomicReference<>();
+        AtomicReference<ProductOutputDTO> second = new AtomicReference<>();
+        cache.get("SKU-1", key -> Uni.createFrom().<ProductOutputDTO>emitter(before::set))
+                .subscribe().with(ignored -> {
+                });
+
+        cache.invalidate("SKU-1");
+        ProductOutputDTO updated = product("Produto Novo");
+        cache.get("SKU-1", key -> Uni.createFrom().item(updated)).subscribe().with(second::set);
+        before.get().complete(product("Produto Antigo"));
+
+        assertThat(second).hasValue(updated);
+        assertThat(cache.getIfPresent("SKU-1")).contains(updated);
+    }
+
+    @Test
+    void shouldDiscardNotFoundReadBeforeInvalidation() {
+        long generation = cache.generation("SKU-1");
+        cache.invalidate("SKU-1");
+
+        cache.put("SKU-1", generation, null);
+
+        assertThat(cache.getIfPresent("SKU-1")).isNull();
+        cache.put("SKU-1", cache.generation("SKU-1"), null);
+        assertThat(cache.getIfPresent("SKU-1")).isEqualTo(Optional.empty());
+    }
+
+    private static ProductOutputDTO product(String name) {
+        ProductOutputDTO product = new ProductOutputDTO();
+        product.setSku("SKU-1");
+        product.setName(name);
+        return product;
+    }
+}
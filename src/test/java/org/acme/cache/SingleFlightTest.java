@@ -0,0 +1,83 @@
+package org.acme.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+
+class SingleFlightTest {
+
+    @Test
+    void shouldShareInFlightLoadBetweenConcurrentCallers() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(registry, "test");
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<UniEmitter<? super String>> pending = new AtomicReference<>();
+        AtomicReference<String> first = new AtomicReference<>();
+        AtomicReference<String> second = new AtomicReference<>();
+
+        singleFlight.execute("SKU-1", key -> Uni.createFrom().<String>emitter(emitter -> {
+            loads.incrementAndGet();
+            pending.set(emitter);
+        })).subscribe().with(first::set);
+        singleFlight.execute("SKU-1", key -> Uni.createFrom().item("outra busca"))
+                .subscribe().with(second::set);
+        pending.get().complete("produto");
+
+        assertThat(loads).hasValue(1);
+        assertThat(first).hasValue("produto");
+        assertThat(second).hasValue("produto");
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(registry.get("products.singleflight.requests").tag("outcome", "issued").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("products.singleflight.requests").tag("outcome", "coalesced").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotShareForgottenLoadWithLaterCallers() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(new SimpleMeterRegistry(), "test");
+        AtomicReference<UniEmitter<? super String>> before = new AtomicReference<>();
+        AtomicReference<UniEmitter<? super String>> after = new AtomicReference<>();
+        AtomicReference<String> first = new AtomicReference<>();
+        AtomicReference<String> second = new AtomicReference<>();
+
+        singleFlight.execute("SKU-1", key -> Uni.createFrom().<String>emitter(before::set))
+                .subscribe().with(first::set);
+        singleFlight.forget("SKU-1");
+        singleFlight.execute("SKU-1", key -> Uni.createFrom().<String>emitter(after::set))
+                .subscribe().with(second::set);
+        before.get().complete("produto antigo");
+
+        // a busca antiga, ao terminar, não remove a nova
+        assertThat(singleFlight.inFlight()).isEqualTo(1);
+        after.get().complete("produto novo");
+
+        assertThat(first).hasValue("produto antigo");
+        assertThat(second).hasValue("produto novo");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldIssueNewLoadAfterPreviousOneTerminated() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(new SimpleMeterRegistry(), "test");
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("SKU-1", key -> Uni.createFrom().failure(new IllegalStateException("falha")))
+                .onFailure().recoverWithNull().await().indefinitely();
+        String result = singleFlight.execute("SKU-1", key -> {
+            loads.incrementAndGet();
+            return Uni.createFrom().item("produto");
+        }).await().indefinitely();
+
+        assertThat(result).isEqualTo("produto");
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,37 @@
+package org.acme.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ExportThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldSpaceBatchesToTheConfiguredRate() {
+        ExportThrottle throttle = new ExportThrottle(1000, 0);
+
+        assertThat(throttle.reserve(100, 0)).isZero();
+        assertThat(throttle.reserve(100, 0)).isEqualTo(SECOND / 10);
+        assertThat(throttle.reserve(100, SECOND / 20)).isEqualTo(SECOND / 5 - SECOND / 20);
+    }
+
+    @Test
+    void shouldNotAccumulateCreditWhileIdle() {
+        ExportThrottle throttle = new ExportThrottle(1000, 0);
+
+        assertThat(throttle.reserve(100, 10 * SECOND)).isZero();
+        assertThat(throttle.reserve(100, 10 * SECOND)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void shouldNotWaitWhenDisabled() {
+        ExportThrottle throttle = new ExportThrottle(0, 0);
+
+        assertThat(throttle.reserve(1_000_000, 0)).isZero();
+        assertThat(throttle.reserve(1_000_000, 0)).isZero();
+    }
+}
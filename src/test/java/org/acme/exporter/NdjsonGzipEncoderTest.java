@@ -0,0 +1,68 @@
+package org.acme.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import org.acme.dto.ProductOutputDTO;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class NdjsonGzipEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void shouldWriteOneJsonLinePerProductInASingleGzipStream() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (NdjsonGzipEncoder encoder = new NdjsonGzipEncoder(objectMapper)) {
+            body.write(encoder.encode(List.of(product(1, "SKU-1"), product(2, "SKU-2"))));
+            body.write(encoder.encode(List.of(product(3, "SKU-3"))));
+            body.write(encoder.finish());
+        }
+
+        String[] lines = gunzip(body.toByteArray()).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readValue(lines[2], ProductOutputDTO.class).getSku()).isEqualTo("SKU-3");
+    }
+
+    @Test
+    void shouldMakeEachChunkDecodableAsSoonAsItIsSent() throws Exception {
+        try (NdjsonGzipEncoder encoder = new NdjsonGzipEncoder(objectMapper)) {
+            byte[] first = encoder.encode(List.of(product(1, "SKU-1")));
+
+            assertThat(inflatePartial(first)).isEqualTo(objectMapper.writeValueAsString(product(1, "SKU-1")) + "\n");
+        }
+    }
+
+    private static ProductOutputDTO product(long id, String sku) {
+        return new ProductOutputDTO(id, sku, "Produto " + id, LocalDateTime.of(2024, 1, 1, 0, 0), null, 0L);
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Descompacta o que já foi enviado de um gzip ainda sem rodapé. */
+    private static String inflatePartial(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        // o GZIPOutputStream escreve um cabeçalho fixo de 10 bytes, sem campos opcionais
+        inflater.setInput(data, 10, data.length - 10);
+        byte[] buffer = new byte[4096];
+        int length = inflater.inflate(buffer);
+        inflater.end();
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+}
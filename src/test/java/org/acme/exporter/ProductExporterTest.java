@@ -0,0 +1,97 @@
+package org.acme.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.model.Product;
+import org.acme.producer.ProductOutProducer;
+import org.acme.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+
+class ProductExporterTest {
+
+    private final ProductExporter exporter = new ProductExporter();
+    private final AtomicReference<MultiEmitter<? super Product>> scan = new AtomicReference<>();
+    private final List<Boolean> replicaAllowed = new CopyOnWriteArrayList<>();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final List<Long> completedCounts = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        exporter.registry = new SimpleMeterRegistry();
+        exporter.batchSize = 1;
+        exporter.maxRowsPerSecond = 0;
+        exporter.snapshotMaxInFlight = 4;
+        exporter.productRepository = new ProductRepository() {
+            @Override
+            public Multi<Product> streamLive(boolean allowed) {
+                replicaAllowed.add(allowed);
+                return Multi.createFrom().<Product>emitter(scan::set);
+            }
+        };
+        exporter.productOutProducer = new ProductOutProducer() {
+            @Override
+            public Uni<Void> sendSnapshot(String snapshotId, ProductOutputDTO payload) {
+                sent.add(payload.getSku() + "@" + payload.getVersion());
+                return Uni.createFrom().voidItem();
+            }
+
+            @Override
+            public Uni<Void> sendSnapshotCompleted(String snapshotId, long count) {
+                completedCounts.add(count);
+                return Uni.createFrom().voidItem();
+            }
+        };
+        exporter.init();
+    }
+
+    @Test
+    void shouldReadSnapshotFromPrimary() {
+        exporter.startSnapshot();
+
+        assertThat(replicaAllowed).containsExactly(false);
+    }
+
+    @Test
+    void shouldNotRepublishProductsChangedDuringTheSnapshot() {
+        exporter.startSnapshot();
+        scan.get().emit(product("SKU-1", 1L));
+        // a alteração do SKU-2 para a versão 2 é publicada pela outbox e lida do tópico
+        // depois que o cursor leu a versão 1, mas antes do envio do snapshot
+        exporter.changed("SKU-2");
+        scan.get().emit(product("SKU-2", 1L));
+        scan.get().emit(product("SKU-3", 1L));
+        scan.get().complete();
+
+        assertThat(sent).containsExactly("SKU-1@1", "SKU-3@1");
+        assertThat(completedCounts).containsExactly(2L);
+        assertThat(exporter.snapshotStatus().isDone()).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreChangesOutsideASnapshot() {
+        exporter.changed("SKU-1");
+        exporter.startSnapshot();
+        scan.get().emit(product("SKU-1", 1L));
+        scan.get().complete();
+
+        assertThat(sent).containsExactly("SKU-1@1");
+    }
+
+    private static Product product(String sku, long version) {
+        Product product = new Product(sku, "Produto " + sku);
+        product.id = 1L;
+        product.version = version;
+        return product;
+    }
+}
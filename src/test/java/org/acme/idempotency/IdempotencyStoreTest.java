@@ -0,0 +1,159 @@
+package org.acme.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.acme.dto.ProductInputDTO;
+import org.acme.dto.ProductOutputDTO;
+import org.acme.exception.ProductAlreadyExistException;
+import org.acme.exception.ProductIdempotencyKeyReusedException;
+import org.acme.model.ProductIdempotency;
+import org.acme.repository.ProductIdempotencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.pgclient.PgException;
+
+class IdempotencyStoreTest {
+
+    private static final ProductInputDTO INPUT = new ProductInputDTO("SKU-IDEM-1", "Produto Idempotente");
+    private static final String FINGERPRINT = IdempotencyStore.fingerprint(INPUT);
+
+    private final IdempotencyStore store = new IdempotencyStore();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store.ttl = Duration.ofMinutes(1);
+        store.maximumSize = 100;
+        store.registry = new SimpleMeterRegistry();
+        store.init();
+    }
+
+    @Test
+    void shouldReplayFirstResponseWithoutExecutingAgain() {
+        IdempotentResponse first = store.execute("chave-1", FINGERPRINT, this::create).await().indefinitely();
+        IdempotentResponse second = store.execute("chave-1", FINGERPRINT, this::create).await().indefinitely();
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(second.isReplayed()).isTrue();
+        assertThat(second.getStatus()).isEqualTo(201);
+        assertThat(second.getProduct()).isSameAs(first.getProduct());
+    }
+
+    @Test
+    void shouldMakeConcurrentDuplicatesWaitForTheOriginal() {
+        AtomicReference<UniEmitter<? super IdempotentResponse>> pending = new AtomicReference<>();
+        AtomicReference<IdempotentResponse> original = new AtomicReference<>();
+        AtomicReference<IdempotentResponse> duplicate = new AtomicReference<>();
+        Supplier<Uni<IdempotentResponse>> slowCreate = () -> {
+            executions.incrementAndGet();
+            return Uni.createFrom().<IdempotentResponse>emitter(pending::set);
+        };
+
+        store.execute("chave-2", FINGERPRINT, slowCreate).subscribe().with(original::set);
+        store.execute("chave-2", FINGERPRINT, slowCreate).subscribe().with(duplicate::set);
+        assertThat(duplicate.get()).isNull();
+        pending.get().complete(IdempotentResponse.created(FINGERPRINT, product()));
+
+        assertThat(executions).hasValue(1);
+        assertThat(original.get().isReplayed()).isFalse();
+        assertThat(duplicate.get().isReplayed()).isTrue();
+    }
+
+    @Test
+    void shouldReplayDomainErrors() {
+        store.execute("chave-3", FINGERPRINT, () -> {
+            executions.incrementAndGet();
+            return Uni.createFrom().item(IdempotentResponse.failed(FINGERPRINT,
+                    new ProductAlreadyExistException(INPUT.getSku(), INPUT.getName())));
+        }).await().indefinitely();
+
+        IdempotentResponse replay = store.execute("chave-3", FINGERPRINT, this::create).await().indefinitely();
+
+        assertThat(executions).hasValue(1);
+        assertThat(replay.getStatus()).isEqualTo(409);
+        assertThat(replay.getError().getErrorCode()).isEqualTo("PRODUCT_ALREADY_EXISTS");
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentContent() {
+        store.execute("chave-4", FINGERPRINT, this::create).await().indefinitely();
+        String other = IdempotencyStore.fingerprint(new ProductInputDTO("SKU-IDEM-2", "Outro Produto"));
+
+        assertThatThrownBy(() -> store.execute("chave-4", other, this::create).await().indefinitely())
+                .isInstanceOf(ProductIdempotencyKeyReusedException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void shouldNotKeepUnexpectedFailures() {
+        assertThatThrownBy(() -> store.execute("chave-5", FINGERPRINT,
+                () -> Uni.createFrom().failure(new IllegalStateException("banco indisponível")))
+                .await().indefinitely())
+                .isInstanceOf(IllegalStateException.class);
+
+        IdempotentResponse retry = store.execute("chave-5", FINGERPRINT, this::create).await().indefinitely();
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.isReplayed()).isFalse();
+    }
+
+    @Test
+    void shouldAdoptResponseStoredByAnotherInstance() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        AtomicReference<ProductIdempotency> stored = new AtomicReference<>();
+        store.persistent = true;
+        store.objectMapper = objectMapper;
+        store.repository = new ProductIdempotencyRepository() {
+            @Override
+            public Uni<ProductIdempotency> findSince(String key, LocalDateTime since) {
+                return Uni.createFrom().item(stored.get());
+            }
+
+            @Override
+            public Uni<Void> insert(ProductIdempotency entity) {
+                return Uni.createFrom().failure(new PgException("duplicate key", "ERROR", "23505", null));
+            }
+        };
+        // a outra instância cria o produto e grava a resposta enquanto esta recebe o conflito
+        ProductIdempotency winner = new ProductIdempotency("chave-6", FINGERPRINT, 201,
+                objectMapper.writeValueAsString(product()));
+        Supplier<Uni<IdempotentResponse>> conflictingCreate = () -> {
+            executions.incrementAndGet();
+            stored.set(winner);
+            return Uni.createFrom().item(IdempotentResponse.failed(FINGERPRINT,
+                    new ProductAlreadyExistException(INPUT.getSku(), INPUT.getName())));
+        };
+
+        IdempotentResponse response = store.execute("chave-6", FINGERPRINT, conflictingCreate).await().indefinitely();
+        IdempotentResponse replay = store.execute("chave-6", FINGERPRINT, this::create).await().indefinitely();
+
+        assertThat(executions).hasValue(1);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.isReplayed()).isTrue();
+        assertThat(response.getProduct().getSku()).isEqualTo(INPUT.getSku());
+        assertThat(replay.getStatus()).isEqualTo(201);
+    }
+
+    private Uni<IdempotentResponse> create() {
+        executions.incrementAndGet();
+        return Uni.createFrom().item(IdempotentResponse.created(FINGERPRINT, product()));
+    }
+
+    private static ProductOutputDTO product() {
+        return new ProductOutputDTO(1L, INPUT.getSku(), INPUT.getName(), null, null, 0L);
+    }
+}
@@ -0,0 +1,70 @@
+package org.acme.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProductImportParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldParseNdjsonLinesAndKeepLineNumbers() {
+        ProductImportParser parser = new ProductImportParser(ProductImportFormat.NDJSON, objectMapper);
+
+        ProductImportRecord first = parser.parse("\uFEFF{\"sku\":\"SKU-1\",\"name\":\"Produto 1\"}\r");
+        ProductImportRecord blank = parser.parse("   ");
+        ProductImportRecord malformed = parser.parse("{\"sku\":");
+
+        assertThat(first.line).isEqualTo(1);
+        assertThat(first.input.getSku()).isEqualTo("SKU-1");
+        assertThat(first.input.getName()).isEqualTo("Produto 1");
+        assertThat(blank).isSameAs(ProductImportRecord.SKIPPED);
+        assertThat(malformed.line).isEqualTo(3);
+        assertThat(malformed.input).isNull();
+        assertThat(malformed.error).startsWith("JSON inválido");
+    }
+
+    @Test
+    void shouldMapCsvColumnsFromHeader() {
+        ProductImportParser parser = new ProductImportParser(ProductImportFormat.CSV, objectMapper);
+
+        assertThat(parser.parse("name,SKU\r")).isSameAs(ProductImportRecord.SKIPPED);
+        ProductImportRecord record = parser.parse("\"Cadeira, \"\"gamer\"\"\",SKU-2");
+        ProductImportRecord missingColumn = parser.parse("Mesa");
+        ProductImportRecord unclosedQuote = parser.parse("\"Mesa,SKU-3");
+
+        assertThat(record.line).isEqualTo(2);
+        assertThat(record.input.getSku()).isEqualTo("SKU-2");
+        assertThat(record.input.getName()).isEqualTo("Cadeira, \"gamer\"");
+        assertThat(missingColumn.error).contains("colunas sku e name");
+        assertThat(unclosedQuote.error).contains("aspas");
+    }
+
+    @Test
+    void shouldRejectCsvWithoutHeader() {
+        ProductImportParser parser = new ProductImportParser(ProductImportFormat.CSV, objectMapper);
+
+        assertThatThrownBy(() -> parser.parse("SKU-1,Produto 1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldSplitQuotedCsvFields() {
+        assertThat(ProductImportParser.splitCsv("a,\"b,c\",,\"d\"\"e\"")).isEqualTo(List.of("a", "b,c", "", "d\"e"));
+        assertThat(ProductImportParser.splitCsv("\"a")).isNull();
+    }
+
+    @Test
+    void shouldResolveFormatFromContentType() {
+        assertThat(ProductImportFormat.fromContentType("application/x-ndjson; charset=UTF-8"))
+                .isEqualTo(ProductImportFormat.NDJSON);
+        assertThat(ProductImportFormat.fromContentType("text/csv")).isEqualTo(ProductImportFormat.CSV);
+        assertThat(ProductImportFormat.fromContentType("application/json")).isNull();
+        assertThat(ProductImportFormat.fromContentType(null)).isNull();
+    }
+}
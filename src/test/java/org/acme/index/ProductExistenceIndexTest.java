@@ -0,0 +1,173 @@
+package org.acme.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.acme.model.Product;
+import org.acme.repository.ProductRepository;
+import org.acme.repository.ProductRepository.LiveChanges;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.smallrye.mutiny.subscription.UniEmitter;
+
+class ProductExistenceIndexTest {
+
+    private final ProductExistenceIndex index = new ProductExistenceIndex();
+    private final AtomicReference<MultiEmitter<? super Product>> scan = new AtomicReference<>();
+    private final List<UniEmitter<? super LiveChanges>> catchUps = new CopyOnWriteArrayList<>();
+    private final List<Long> catchUpHorizons = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index.registry = new SimpleMeterRegistry();
+        index.expectedInsertions = 10_000;
+        index.fpp = 0.001;
+        index.productRepository = new ProductRepository() {
+            @Override
+            public Multi<Product> streamLive(boolean replicaAllowed) {
+                return Multi.createFrom().<Product>emitter(scan::set);
+            }
+
+            @Override
+            public Uni<Long> currentHorizon() {
+                return Uni.createFrom().item(100L);
+            }
+
+            @Override
+            public Uni<LiveChanges> findLiveChangedSince(long horizon) {
+                return Uni.createFrom().<LiveChanges>emitter(emitter -> {
+                    catchUpHorizons.add(horizon);
+                    catchUps.add(emitter);
+                });
+            }
+        };
+        index.init();
+    }
+
+    @Test
+    void shouldKeepProductsAddedWhileRebuilding() {
+        index.rebuild().subscribe().with(ignored -> {
+        });
+        scan.get().emit(new Product("SKU-SCAN", "Produto Lido"));
+        index.add("SKU-ADD", "Produto Criado");
+        scan.get().complete();
+
+        assertThat(index.mightExist("SKU-SCAN", "Produto Lido")).isTrue();
+        assertThat(index.mightExist("SKU-ADD", "Produto Criado")).isTrue();
+        assertThat(index.mightExist("SKU-NONE", "Produto Inexistente")).isFalse();
+    }
+
+    @Test
+    void shouldNotLoseAddsRacingWithTheSwap() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            index.rebuild().subscribe().with(ignored -> {
+            });
+            MultiEmitter<? super Product> emitter = scan.get();
+            CyclicBarrier start = new CyclicBarrier(2);
+            CountDownLatch swapped = new CountDownLatch(1);
+            Thread swap = new Thread(() -> {
+                await(start);
+                emitter.complete();
+                swapped.countDown();
+            });
+            swap.start();
+            String sku = "SKU-" + i;
+            await(start);
+            index.add(sku, "Produto " + i);
+            swapped.await();
+            swap.join();
+
+            assertThat(index.mightExist(sku, "Produto " + i)).as("produto %s após a troca", sku).isTrue();
+        }
+    }
+
+    @Test
+    void shouldConfirmAbsenceOnlyAfterReadingRecentWrites() {
+        load();
+
+        UniAssertSubscriber<Set<String>> lookup = index.absentSkus(List.of("SKU-REMOTE", "SKU-NONE"))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        assertThat(catchUpHorizons).containsExactly(100L);
+        lookup.assertNotTerminated();
+        // criado por outra instância, cujo evento ainda não chegou
+        catchUps.get(0).complete(new LiveChanges(120L, List.of(new Product("SKU-REMOTE", "Produto Remoto"))));
+        lookup.assertCompleted().assertItem(Set.of("SKU-NONE"));
+
+        index.absentSkus(List.of("SKU-OTHER")).subscribe().withSubscriber(UniAssertSubscriber.create());
+        assertThat(catchUpHorizons).containsExactly(100L, 120L);
+    }
+
+    @Test
+    void shouldNotTrustReadsStartedBeforeTheLookup() {
+        load();
+
+        UniAssertSubscriber<Set<String>> first = index.absentSkus(List.of("SKU-A"))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        UniAssertSubscriber<Set<String>> second = index.absentSkus(List.of("SKU-B"))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        UniAssertSubscriber<Set<String>> third = index.absentSkus(List.of("SKU-C"))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        assertThat(catchUps).hasSize(1);
+
+        catchUps.get(0).complete(new LiveChanges(110L, List.of()));
+        first.assertItem(Set.of("SKU-A"));
+        second.assertNotTerminated();
+        third.assertNotTerminated();
+        // as chamadas que esperavam compartilham a leitura seguinte
+        assertThat(catchUps).hasSize(2);
+
+        catchUps.get(1).complete(new LiveChanges(110L, List.of(new Product("SKU-B", "Produto B"))));
+        second.assertItem(Set.of());
+        third.assertItem(Set.of("SKU-C"));
+
+        assertThat(index.registry.get("products.existence.index.catchup").tag("outcome", "success").timer().count())
+                .isEqualTo(2);
+        assertThat(index.registry.get("products.existence.index.catchup.products").counter().count()).isEqualTo(1);
+        assertThat(index.registry.get("products.existence.index.absence.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFallBackToTheDatabaseWhenTheIndexCannotConfirm() {
+        index.absentSkus(List.of("SKU-A")).subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertItem(Set.of());
+        assertThat(catchUps).isEmpty();
+
+        load();
+        index.add("SKU-LOCAL", "Produto Local");
+        index.absentSkus(List.of("SKU-LOCAL")).subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertItem(Set.of());
+        assertThat(catchUps).isEmpty();
+
+        UniAssertSubscriber<Set<String>> lookup = index.absentSkus(List.of("SKU-A"))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        catchUps.get(0).fail(new IllegalStateException("banco indisponível"));
+        lookup.assertItem(Set.of());
+    }
+
+    private void load() {
+        index.rebuild().subscribe().with(ignored -> {
+        });
+        scan.get().complete();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
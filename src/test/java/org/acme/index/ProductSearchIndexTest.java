@@ -0,0 +1,98 @@
+package org.acme.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.acme.dto.ProductOutputDTO;
+import org.acme.model.Product;
+import org.acme.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.mutiny.Multi;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void shouldFindBySkuOrNamePrefixIgnoringCase() {
+        index.put(product(1L, "ABC-001", "Caneta Azul", 0L));
+        index.put(product(2L, "XYZ-002", "Abajur", 0L));
+        index.put(product(3L, "CAD-003", "Cadeira", 0L));
+
+        assertThat(skus(index.search("ab", 10))).containsExactly("XYZ-002", "ABC-001");
+        assertThat(skus(index.search("CA", 10))).containsExactly("CAD-003", "ABC-001");
+        assertThat(skus(index.search("ca", 1))).containsExactly("CAD-003");
+    }
+
+    @Test
+    void shouldFollowRenamesAndDeletes() {
+        index.put(product(1L, "ABC-001", "Caneta Azul", 0L));
+        index.put(product(1L, "ABC-001", "Lapis", 1L));
+        index.put(product(1L, "ABC-001", "Caneta Azul", 0L));
+
+        assertThat(index.search("caneta", 10)).isEmpty();
+        assertThat(skus(index.search("lap", 10))).containsExactly("ABC-001");
+
+        index.remove(product(1L, "ABC-001", "Lapis", 2L));
+
+        assertThat(index.search("abc", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepProductsWhoseNamesDifferOnlyInCase() {
+        index.put(product(1L, "ABC-001", "Foo", 0L));
+        index.put(product(2L, "ABC-002", "foo", 0L));
+
+        assertThat(skus(index.search("foo", 10))).containsExactly("ABC-001", "ABC-002");
+
+        index.remove(product(1L, "ABC-001", "Foo", 1L));
+
+        assertThat(skus(index.search("foo", 10))).containsExactly("ABC-002");
+    }
+
+    @Test
+    void shouldRetryLoadAfterFailure() {
+        AtomicInteger loads = new AtomicInteger();
+        index.productRepository = new ProductRepository() {
+            @Override
+            public Multi<Product> streamLive(boolean replicaAllowed) {
+                Multi<Product> products = Multi.createFrom().items(entity(1L, "ABC-001", "Caneta"),
+                        entity(2L, "XYZ-002", "Lapis"));
+                return loads.incrementAndGet() == 1
+                        ? products.select().first(1).onCompletion().failWith(new IllegalStateException("conexão perdida"))
+                        : products;
+            }
+        };
+
+        index.onStart(null);
+
+        assertThat(skus(index.search("", 10))).containsExactly("ABC-001");
+        assertThat(index.retryLoad().await().indefinitely()).isNull();
+        assertThat(index.retryLoad().await().indefinitely()).isNull();
+
+        assertThat(loads).hasValue(2);
+        assertThat(skus(index.search("", 10))).containsExactly("ABC-001", "XYZ-002");
+    }
+
+    private static Product entity(Long id, String sku, String name) {
+        Product product = new Product();
+        product.id = id;
+        product.sku = sku;
+        product.name = name;
+        product.version = 0L;
+        return product;
+    }
+
+    private static ProductOutputDTO product(Long id, String sku, String name, Long version) {
+        return new ProductOutputDTO(id, sku, name, null, null, version);
+    }
+
+    private static List<String> skus(List<ProductOutputDTO> products) {
+        return products.stream().map(ProductOutputDTO::getSku).collect(Collectors.toList());
+    }
+}
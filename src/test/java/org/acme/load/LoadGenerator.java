@@ -0,0 +1,174 @@
+package org.acme.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.acme.dto.ProductBatchItemDTO;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Gera carga em taxa de chegada fixa (modelo aberto) sobre a API de produtos.
+ * A latência de cada requisição é medida a partir do instante em que ela deveria ter
+ * sido enviada, e não de quando foi de fato enviada, para não esconder filas
+ * (omissão coordenada) quando o servidor fica lento.
+ */
+class LoadGenerator {
+
+    enum Operation {
+        CREATE, GET_BY_SKU
+    }
+
+    static class Result {
+        final Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder failures = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            histogram.recordValue(Math.min(latencyNanos, histogram.getHighestTrackableValue()));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        long errors() {
+            return failures.sum() + statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() >= 500)
+                    .mapToLong(entry -> entry.getValue().sum())
+                    .sum();
+        }
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final List<String> knownSkus = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis() % 1_000_000L, 36).toUpperCase();
+
+    LoadGenerator(URI baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Cria os produtos usados pelas leituras através do endpoint de lote. Apenas os itens
+     * criados passam a ser lidos; um lote recusado interrompe a carga.
+     */
+    void seed(int products) throws IOException {
+        for (int start = 0; start < products; start += 500) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < Math.min(start + 500, products); i++) {
+                body.append(i == start ? "" : ",").append(productJson(nextSku()));
+            }
+            body.append(']');
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("products/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<String> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Carga inicial recusada: status=" + response.statusCode()
+                        + ", corpo=" + response.body());
+            }
+            List<String> created = new ArrayList<>();
+            for (JsonNode item : OBJECT_MAPPER.readTree(response.body()).path("items")) {
+                if (ProductBatchItemDTO.Status.CREATED.name().equals(item.path("status").asText())) {
+                    created.add(item.path("sku").asText());
+                }
+            }
+            knownSkus.addAll(created);
+        }
+        if (knownSkus.isEmpty() && products > 0) {
+            throw new IllegalStateException("Carga inicial não criou nenhum produto");
+        }
+    }
+
+    /**
+     * Dispara requisições na taxa pedida durante o período e aguarda as pendentes.
+     *
+     * @param rate      requisições por segundo
+     * @param duration  duração da fase
+     * @param readRatio fração das requisições que são leituras por SKU
+     * @return resultados por operação
+     */
+    Map<Operation, Result> run(int rate, Duration duration, double readRatio) {
+        Map<Operation, Result> results = Map.of(Operation.CREATE, new Result(), Operation.GET_BY_SKU, new Result());
+        Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0;; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean read = !knownSkus.isEmpty() && ThreadLocalRandom.current().nextDouble() < readRatio;
+            Operation operation = read ? Operation.GET_BY_SKU : Operation.CREATE;
+            Result result = results.get(operation);
+            String sku = read ? knownSkus.get(ThreadLocalRandom.current().nextInt(knownSkus.size())) : nextSku();
+            CompletableFuture<?> future = client.sendAsync(request(operation, sku), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (failure != null) {
+                            result.failures.increment();
+                            return;
+                        }
+                        result.record(System.nanoTime() - intended, response.statusCode());
+                        if (operation == Operation.CREATE && response.statusCode() == 201) {
+                            knownSkus.add(sku);
+                        }
+                    });
+            inFlight.add(future);
+            future.whenComplete((response, failure) -> inFlight.remove(future));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                .completeOnTimeout(null, 30, TimeUnit.SECONDS)
+                .exceptionally(failure -> null)
+                .join();
+        return results;
+    }
+
+    private HttpRequest request(Operation operation, String sku) {
+        if (operation == Operation.GET_BY_SKU) {
+            return HttpRequest.newBuilder(baseUri.resolve("products/" + sku)).GET().build();
+        }
+        return HttpRequest.newBuilder(baseUri.resolve("products"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(productJson(sku)))
+                .build();
+    }
+
+    private String nextSku() {
+        return "L" + runId + "-" + Long.toString(sequence.incrementAndGet(), 36).toUpperCase();
+    }
+
+    private static String productJson(String sku) {
+        return "{\"sku\":\"" + sku + "\",\"name\":\"Carga " + sku + "\"}";
+    }
+}
@@ -0,0 +1,111 @@
+package org.acme.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Teste de carga de {@code POST /products} e {@code GET /products/{sku}} contra a aplicação
+ * com Postgres e Redpanda dos dev services. Fica fora do build padrão; execute com:
+ *
+ * <pre>
+ * ./mvnw -Pload-test test -Dload.rate=500 -Dload.duration=PT60S -Dload.read-ratio=0.9
+ * </pre>
+ *
+ * O relatório ({@code report.json} e um {@code .hgrm} por operação) é gravado em
+ * {@code target/load-test} e pode ser comparado entre commits.
+ */
+@QuarkusTest
+@Tag("load")
+class ProductLoadTest {
+
+    @TestHTTPResource("/")
+    URL baseUrl;
+
+    @Test
+    void shouldSustainConfiguredLoad() throws Exception {
+        int rate = Integer.getInteger("load.rate", 200);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        double readRatio = Double.parseDouble(System.getProperty("load.read-ratio", "0.8"));
+        int seed = Integer.getInteger("load.seed-products", 1000);
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+        Path reportDir = Path.of(System.getProperty("load.report-dir", "target/load-test"));
+
+        LoadGenerator generator = new LoadGenerator(URI.create(baseUrl.toString()));
+        generator.seed(seed);
+        generator.run(rate, warmup, readRatio);
+        Map<LoadGenerator.Operation, LoadGenerator.Result> results = generator.run(rate, duration, readRatio);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rate", rate);
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("readRatio", readRatio);
+        config.put("seedProducts", seed);
+        config.put("commit", System.getProperty("load.commit", "unknown"));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        Map<String, Object> operations = new TreeMap<>();
+        long total = 0;
+        long errors = 0;
+        Files.createDirectories(reportDir);
+        for (Map.Entry<LoadGenerator.Operation, LoadGenerator.Result> entry : results.entrySet()) {
+            LoadGenerator.Result result = entry.getValue();
+            operations.put(entry.getKey().name(), summary(result, duration));
+            writePercentiles(reportDir.resolve(entry.getKey().name().toLowerCase() + ".hgrm"), result.histogram);
+            total += result.histogram.getTotalCount() + result.failures.sum();
+            errors += result.errors();
+        }
+        report.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportDir.resolve("report.json").toFile(), report);
+
+        assertThat(total).isPositive();
+        assertThat((double) errors / total).isLessThanOrEqualTo(maxErrorRate);
+    }
+
+    private static Map<String, Object> summary(LoadGenerator.Result result, Duration duration) {
+        Histogram histogram = result.histogram;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("throughputPerSecond", histogram.getTotalCount() / (double) duration.toSeconds());
+        summary.put("errors", result.errors());
+        Map<String, Long> statuses = new TreeMap<>();
+        result.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+        summary.put("statuses", statuses);
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static void writePercentiles(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+        }
+    }
+}
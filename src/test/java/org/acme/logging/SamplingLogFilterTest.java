@@ -0,0 +1,41 @@
+package org.acme.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.jupiter.api.Test;
+
+class SamplingLogFilterTest {
+
+    private final SamplingLogFilter filter = new SamplingLogFilter(SamplingLogFilter.parse(
+            List.of("org.acme.resource.ProductResource:0", "org.acme.service.ProductService:1")));
+
+    @Test
+    void shouldSampleInfoOnlyForConfiguredCategories() {
+        assertThat(filter.isLoggable(record(Level.INFO, "org.acme.resource.ProductResource"))).isFalse();
+        assertThat(filter.isLoggable(record(Level.INFO, "org.acme.service.ProductService"))).isTrue();
+        assertThat(filter.isLoggable(record(Level.INFO, "org.acme.producer.ProductOutboxRelay"))).isTrue();
+    }
+
+    @Test
+    void shouldAlwaysKeepWarningsAndErrors() {
+        assertThat(filter.isLoggable(record(Level.WARNING, "org.acme.resource.ProductResource"))).isTrue();
+        assertThat(filter.isLoggable(record(Level.SEVERE, "org.acme.resource.ProductResource"))).isTrue();
+    }
+
+    @Test
+    void shouldRejectEntriesWithoutRate() {
+        assertThatThrownBy(() -> SamplingLogFilter.parse(List.of("org.acme.resource.ProductResource")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static LogRecord record(Level level, String category) {
+        LogRecord record = new LogRecord(level, "mensagem");
+        record.setLoggerName(category);
+        return record;
+    }
+}
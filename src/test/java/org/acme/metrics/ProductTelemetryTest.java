@@ -0,0 +1,78 @@
+package org.acme.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.acme.exception.ProductNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+
+class ProductTelemetryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProductTelemetry telemetry = new ProductTelemetry();
+
+    @BeforeEach
+    void setUp() {
+        telemetry.registry = registry;
+        telemetry.tracer = OpenTelemetry.noop().getTracer("test");
+        telemetry.init();
+    }
+
+    @Test
+    void shouldRecordOutcomeOfAsyncOperation() {
+        telemetry.timed(Stage.QUERY, "findBySku", () -> Uni.createFrom().item("produto"))
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertItem("produto");
+        telemetry.timed(Stage.QUERY, "findBySku",
+                () -> Uni.createFrom().failure(new ProductNotFoundException("SKU-1")))
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ProductNotFoundException.class);
+
+        assertThat(count(Stage.QUERY, "findBySku", "success")).isEqualTo(1);
+        assertThat(count(Stage.QUERY, "findBySku", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMeasureOnlyWhenSubscribed() {
+        Uni<String> uni = telemetry.timed(Stage.TRANSACTION, "create", () -> Uni.createFrom().item("produto"));
+
+        assertThat(count(Stage.TRANSACTION, "create", "success")).isZero();
+        uni.await().indefinitely();
+        uni.await().indefinitely();
+        assertThat(count(Stage.TRANSACTION, "create", "success")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordCancelledStream() {
+        telemetry.timedStream(Stage.QUERY, "streamLive", () -> Multi.createFrom().ticks().every(
+                Duration.ofSeconds(1)))
+                .subscribe().withSubscriber(AssertSubscriber.create(1))
+                .cancel();
+
+        assertThat(count(Stage.QUERY, "streamLive", "cancelled")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordSynchronousOperation() {
+        List<String> errors = telemetry.record(Stage.VALIDATION, "create", () -> List.of("SKU é obrigatório"));
+
+        assertThat(errors).containsExactly("SKU é obrigatório");
+        assertThat(count(Stage.VALIDATION, "create", "success")).isEqualTo(1);
+    }
+
+    private long count(Stage stage, String operation, String outcome) {
+        Timer timer = registry.find(stage.metricName).tag("operation", operation).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,74 @@
+package org.acme.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.mutiny.pgclient.PgPool;
+
+class ReadReplicaRouterTest {
+
+    private final PgPool primary = new PgPool((io.vertx.pgclient.PgPool) null);
+    private final PgPool replica = new PgPool((io.vertx.pgclient.PgPool) null);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReadReplicaRouter router = new ReadReplicaRouter();
+
+    @BeforeEach
+    void setUp() {
+        router.primary = primary;
+        router.replica = replica;
+        router.registry = registry;
+        router.enabled = true;
+        router.maxLag = Duration.ofSeconds(5);
+        router.readYourWritesWindow = Duration.ofSeconds(10);
+        router.recentWritesMaximumSize = 1000;
+        router.init();
+    }
+
+    @Test
+    void shouldReadFromPrimaryUntilLagIsKnown() {
+        assertThat(router.forSku("SKU-1")).isSameAs(primary);
+
+        router.updateLag(0.2);
+
+        assertThat(router.forSku("SKU-1")).isSameAs(replica);
+        assertThat(router.forRange()).isSameAs(replica);
+        assertThat(registry.get("products.replica.lag").gauge().value()).isEqualTo(0.2);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLagsOrFails() {
+        router.updateLag(6);
+        assertThat(router.forRange()).isSameAs(primary);
+
+        router.updateLag(Double.NaN);
+        assertThat(router.forRange()).isSameAs(primary);
+    }
+
+    @Test
+    void shouldReadRecentlyWrittenSkusFromPrimary() {
+        router.updateLag(0);
+        router.markWritten("SKU-1");
+
+        assertThat(router.forSku("SKU-1")).isSameAs(primary);
+        assertThat(router.forSku("SKU-2")).isSameAs(replica);
+        assertThat(router.forSkus(List.of("SKU-2", "SKU-1"))).isSameAs(primary);
+        assertThat(router.forSkus(List.of("SKU-2", "SKU-3"))).isSameAs(replica);
+        assertThat(registry.get("products.replica.reads").tag("target", "primary").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldIgnoreReplicaWhenDisabled() {
+        router.enabled = false;
+        router.updateLag(0);
+        router.markWritten("SKU-1");
+
+        assertThat(router.forSku("SKU-2")).isSameAs(primary);
+        assertThat(router.forRange()).isSameAs(primary);
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.acme.consumer.ProductOutputDTODeserializer;
+import org.acme.dto.ProductOutputDTO;
+import org.junit.jupiter.api.Test;
+
+class ProductBinaryCodecTest {
+
+    @Test
+    void shouldDecodeWhatWasEncoded() {
+        ProductOutputDTO product = new ProductOutputDTO(42L, "SKU-123", "Produto Ção",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6_000), null, 3L);
+
+        ProductOutputDTO decoded = ProductBinaryCodec.decode(ProductBinaryCodec.encode(product));
+
+        assertThat(decoded).isEqualTo(product);
+    }
+
+    @Test
+    void shouldKeepNullSkuAndNameDistinctFromEmpty() {
+        ProductOutputDTO nulls = new ProductOutputDTO(7L, null, null, null, null, null);
+        ProductOutputDTO empty = new ProductOutputDTO(7L, "", "", null, null, null);
+
+        assertThat(ProductBinaryCodec.decode(ProductBinaryCodec.encode(nulls))).isEqualTo(nulls);
+        assertThat(ProductBinaryCodec.decode(ProductBinaryCodec.encode(empty))).isEqualTo(empty);
+    }
+
+    @Test
+    void shouldDeserializeBothJsonAndBinaryPayloads() {
+        ProductOutputDTO product = new ProductOutputDTO(1L, "SKU-1", "Produto", null, null, null);
+        try (ProductOutputDTODeserializer deserializer = new ProductOutputDTODeserializer()) {
+            byte[] json = "{\"id\":1,\"sku\":\"SKU-1\",\"name\":\"Produto\"}".getBytes(StandardCharsets.UTF_8);
+
+            assertThat(deserializer.deserialize("products", json)).isEqualTo(product);
+            assertThat(deserializer.deserialize("products", ProductBinaryCodec.encode(product))).isEqualTo(product);
+        }
+    }
+}
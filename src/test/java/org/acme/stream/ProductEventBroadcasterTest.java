@@ -0,0 +1,78 @@
+package org.acme.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.acme.dto.ProductEventDTO;
+import org.acme.dto.ProductOutputDTO;
+import org.acme.model.ProductEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+
+class ProductEventBroadcasterTest {
+
+    private ProductEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ProductEventBroadcaster();
+        broadcaster.bufferSize = 2;
+        broadcaster.registry = new SimpleMeterRegistry();
+        broadcaster.init();
+    }
+
+    @Test
+    void shouldDropNewEventsWhenBufferIsFull() {
+        AssertSubscriber<ProductEventDTO> subscriber = broadcaster.subscribe(OverflowPolicy.DROP)
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+        publish("SKU-1", "SKU-2", "SKU-3", "SKU-4", "SKU-5");
+        subscriber.request(10);
+
+        assertThat(skus(subscriber)).containsExactly("SKU-1", "SKU-2", "SKU-3");
+        assertThat(dropped("drop")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepLatestEventsWhenBufferIsFull() {
+        AssertSubscriber<ProductEventDTO> subscriber = broadcaster.subscribe(OverflowPolicy.LATEST)
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+        publish("SKU-1", "SKU-2", "SKU-3", "SKU-4", "SKU-5");
+        subscriber.request(10);
+
+        assertThat(skus(subscriber)).containsExactly("SKU-1", "SKU-4", "SKU-5");
+        assertThat(dropped("latest")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStopDeliveringAfterCancel() {
+        AssertSubscriber<ProductEventDTO> subscriber = broadcaster.subscribe(OverflowPolicy.DROP)
+                .subscribe().withSubscriber(AssertSubscriber.create(10));
+        assertThat(broadcaster.registry.get("products.sse.subscribers").gauge().value()).isEqualTo(1);
+
+        subscriber.cancel();
+        publish("SKU-1");
+
+        assertThat(subscriber.getItems()).isEmpty();
+        assertThat(broadcaster.registry.get("products.sse.subscribers").gauge().value()).isZero();
+    }
+
+    private void publish(String... skus) {
+        for (String sku : skus) {
+            broadcaster.publish(new ProductEventDTO(ProductEventType.PRODUCT_CREATED,
+                    new ProductOutputDTO(1L, sku, "Produto", null, null, 0L)));
+        }
+    }
+
+    private static List<String> skus(AssertSubscriber<ProductEventDTO> subscriber) {
+        return subscriber.getItems().stream().map(event -> event.getProduct().getSku()).collect(Collectors.toList());
+    }
+
+    private double dropped(String overflow) {
+        return broadcaster.registry.get("products.sse.dropped").tag("overflow", overflow).counter().count();
+    }
+}
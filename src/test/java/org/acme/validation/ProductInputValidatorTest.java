@@ -0,0 +1,81 @@
+package org.acme.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.acme.dto.ProductInputDTO;
+import org.acme.dto.ProductPatchDTO;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Garante que o validador produz as mesmas mensagens que o Bean Validation sobre as anotações dos DTOs.
+ */
+class ProductInputValidatorTest {
+
+    private static ValidatorFactory factory;
+    private static Validator beanValidator;
+    private final ProductInputValidator validator = new ProductInputValidator();
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory();
+        beanValidator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    static Stream<Arguments> inputs() {
+        return Stream.of(
+                Arguments.of("SKU-12345", "Produto de Teste"),
+                Arguments.of(null, null),
+                Arguments.of("", ""),
+                Arguments.of("     ", "   "),
+                Arguments.of("SKU1", "ab"),
+                Arguments.of("SKU-1234567890", "Nome com mais de quarenta caracteres no total"),
+                Arguments.of("sku-12345", "Produto %"),
+                Arguments.of("SKU 12345", "Produto\tcom\ttab"),
+                Arguments.of("SKÚ-12345", "Produto ção"),
+                Arguments.of("SKU-12345\n", "Produto novo"),
+                Arguments.of("-----", "---"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("inputs")
+    void shouldMatchBeanValidationForInput(String sku, String name) {
+        ProductInputDTO input = new ProductInputDTO(sku, name);
+
+        assertThat(validator.validate(input))
+                .containsExactlyInAnyOrderElementsOf(messages(beanValidator.validate(input).stream()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("inputs")
+    void shouldMatchBeanValidationForPatch(String ignored, String name) {
+        ProductPatchDTO patch = new ProductPatchDTO(name);
+
+        assertThat(validator.validate(patch))
+                .containsExactlyInAnyOrderElementsOf(messages(beanValidator.validate(patch).stream()));
+    }
+
+    private static <T> List<String> messages(Stream<ConstraintViolation<T>> violations) {
+        return violations.map(ConstraintViolation::getMessage).collect(Collectors.toList());
+    }
+}